@@ -601,13 +601,13 @@ function App() {
                 <li key={leave.id} className="list-item">
                   <div>
                     <p className="strong">
-                      {leave.worker ? `${leave.worker.firstName} ${leave.worker.lastName}` : '—'}
+                      {leave.workerId ? `${leave.workerFirstName} ${leave.workerLastName}` : '—'}
                     </p>
                     <p className="muted small">
                       {leave.startDate} → {leave.endDate}
                     </p>
                   </div>
-                  <span className="pill ghost">{leave.worker?.daysOfLeave ?? '—'} days used</span>
+                  <span className="pill ghost">{leave.workerDaysOfLeave ?? '—'} days used</span>
                 </li>
               ))}
             </ul>
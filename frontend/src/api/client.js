@@ -117,7 +117,18 @@ export const deleteProduction = (productionId) =>
   request(`/production/${productionId}/delete`, { method: 'DELETE' });
 
 // Sales
-export const fetchSales = () => request('/sale/getAll', { method: 'GET' });
+// Το /sale/getAll επιστρέφει σελίδες (keyset), οπότε ακολουθούμε το nextCursor μέχρι το τέλος
+export const fetchSales = async () => {
+  const sales = [];
+  let cursor = null;
+  do {
+    const query = cursor ? `?size=500&cursor=${encodeURIComponent(cursor)}` : '?size=500';
+    const page = await request(`/sale/getAll${query}`, { method: 'GET' });
+    sales.push(...page.content);
+    cursor = page.hasNext ? page.nextCursor : null;
+  } while (cursor);
+  return sales;
+};
 
 export const addSale = (sale) =>
   request('/sale/add', {
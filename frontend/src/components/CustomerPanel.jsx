@@ -109,7 +109,7 @@ export default function CustomerPanel({ customers, onAdd, onEdit, onDelete, load
                   <span className="mono">{customer.phoneNumber}</span>
                 )}
               </span>
-              <span className="mono">{formatCurrency(customer.debt)}</span>
+              <span className="mono">{formatCurrency(customer.currentDebt ?? customer.debt)}</span>
               <span className="actions tight">
                 {isEditing ? (
                   <>
@@ -16,7 +16,7 @@ export default function LeaveTable({ leaves, onDelete, onEdit, loading }) {
 
   const startEdit = (leave) => {
     setEditingId(leave.id);
-    setDraft({ startDate: leave.startDate, endDate: leave.endDate, workerId: leave.worker?.id });
+    setDraft({ startDate: leave.startDate, endDate: leave.endDate, workerId: leave.workerId });
   };
 
   const saveEdit = async () => {
@@ -44,7 +44,7 @@ export default function LeaveTable({ leaves, onDelete, onEdit, loading }) {
       </div>
       {leaves.map((leave) => {
         const isEditing = editingId === leave.id;
-        const workerName = leave.worker ? `${leave.worker.firstName} ${leave.worker.lastName}` : '—';
+        const workerName = leave.workerId ? `${leave.workerFirstName} ${leave.workerLastName}` : '—';
 
         return (
           <div key={leave.id} className={`table-row ${isEditing ? 'is-editing' : ''}`}>
@@ -32,7 +32,7 @@ export default function ProductionPanel({ productions, products, onAdd, onEdit,
     setEditingId(item.id);
     setDraft({
       date: item.dateOfProduction || item.date || '',
-      productId: item.product?.id ?? '',
+      productId: item.productId ?? '',
       quantity: item.quantity,
     });
   };
@@ -148,7 +148,7 @@ export default function ProductionPanel({ productions, products, onAdd, onEdit,
                     ))}
                   </select>
                 ) : (
-                  `${item.product?.productCode ?? '—'} · ${item.product?.material ?? ''}`
+                  `${item.productCode ?? '—'} · ${item.material ?? ''}`
                 )}
               </span>
               <span className="mono">
@@ -35,8 +35,8 @@ export default function SalesPanel({ sales, customers, products, onAdd, onEdit,
     setEditingId(sale.id);
     setDraft({
       date: sale.date || '',
-      customerId: sale.customer?.id ?? '',
-      productId: sale.productType?.id ?? '',
+      customerId: sale.customerId ?? '',
+      productId: sale.productId ?? '',
       quantity: sale.quantity,
       totalCost: sale.cost,
     });
@@ -190,7 +190,7 @@ export default function SalesPanel({ sales, customers, products, onAdd, onEdit,
                     ))}
                   </select>
                 ) : (
-                  sale.customer?.name ?? '—'
+                  sale.customerName ?? '—'
                 )}
               </span>
               <span>
@@ -208,7 +208,7 @@ export default function SalesPanel({ sales, customers, products, onAdd, onEdit,
                     ))}
                   </select>
                 ) : (
-                  `${sale.productType?.productCode ?? '—'} · ${sale.productType?.material ?? ''}`
+                  `${sale.productCode ?? '—'} · ${sale.material ?? ''}`
                 )}
               </span>
               <span className="mono">
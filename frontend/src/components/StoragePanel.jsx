@@ -1,8 +1,8 @@
 import { useMemo, useState } from 'react';
 
 const formatLabel = (storage) => {
-  const code = storage.product?.productCode ?? '—';
-  const material = storage.product?.material ?? '';
+  const code = storage.productCode ?? '—';
+  const material = storage.material ?? '';
   return `${code} · ${material}`;
 };
 
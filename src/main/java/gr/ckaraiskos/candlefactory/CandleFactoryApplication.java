@@ -2,10 +2,15 @@ package gr.ckaraiskos.candlefactory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+// Το caching τυλίγει το @Transactional της ίδιας μεθόδου: ένα evict γίνεται μετά το commit μόνο όταν η μέθοδος ξεκινά η ίδια
+// τη συναλλαγή, όχι όταν καλείται μέσα σε άλλη. Γι' αυτό στις caches δεν μπαίνουν τιμές που αλλάζουν στα εσωτερικά βήματα (π.χ. χρέος)
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CandleFactoryApplication {
 
     public static void main(String[] args) {
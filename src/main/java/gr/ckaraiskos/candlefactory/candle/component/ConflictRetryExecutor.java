@@ -0,0 +1,85 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional operation when it fails because another request changed
+ * the same versioned row (Storage, Customer) in the meantime.
+ * Must be called from outside the transaction, so every attempt gets a fresh one.
+ */
+@Slf4j
+@Component
+public class ConflictRetryExecutor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public ConflictRetryExecutor(MeterRegistry meterRegistry,
+                                 @Value("${candle.retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${candle.retry.initial-backoff-ms:50}") long initialBackoffMs,
+                                 @Value("${candle.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        long backoff = initialBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+            counter("candle.retry.attempts", operation).increment();
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException ex) {
+                counter("candle.retry.conflicts", operation).increment();
+
+                if (attempt >= maxAttempts) {
+                    log.error("Operation {} failed after {} attempts due to concurrent changes.", operation, attempt);
+                    counter("candle.retry.exhausted", operation).increment();
+                    throw ex;
+                }
+
+                log.warn("Concurrent change detected in {}. Retrying (attempt {} of {}).", operation, attempt + 1, maxAttempts);
+                sleep(backoff, ex);
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void sleep(long backoff, OptimisticLockingFailureException cause) {
+        if (backoff <= 0) {
+            return;
+        }
+
+        // Jitter, ώστε οι συγκρουόμενες αιτήσεις να μην ξαναχτυπήσουν ταυτόχρονα
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+}
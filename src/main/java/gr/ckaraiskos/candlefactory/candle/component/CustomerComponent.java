@@ -2,26 +2,45 @@ package gr.ckaraiskos.candlefactory.candle.component;
 
 import gr.ckaraiskos.candlefactory.candle.dto.CustomerDto;
 import gr.ckaraiskos.candlefactory.candle.entity.Customer;
-import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.DebtEntry;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
 import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
 import gr.ckaraiskos.candlefactory.candle.repository.CustomerRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.DebtEntryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CustomerComponent {
 
+    public static final String CUSTOMERS_CACHE = "customers";
+
     private final CustomerRepository customerRepository;
+    private final DebtEntryRepository debtEntryRepository;
+
+    @Value("${candle.debt.compaction-batch-size:500}")
+    private int compactionBatchSize;
 
     @Transactional
     public Customer tryAddCustomer(CustomerDto newCustomer) throws EntityAlreadyExistsException {
@@ -44,6 +63,7 @@ public class CustomerComponent {
         return newCustomerEntity;
     }
 
+    @CacheEvict(cacheNames = CUSTOMERS_CACHE, key = "#changesCustomer.customerId")
     @Transactional
     public Customer tryUpdateCustomer(CustomerDto changesCustomer) throws EntityNotFoundException {
         log.info("Checking customer with Id:{}.", changesCustomer.getCustomerId());
@@ -54,6 +74,7 @@ public class CustomerComponent {
                     .name(changesCustomer.getCustomerName())
                     .phoneNumber(changesCustomer.getCustomerPhone())
                     .debt(customer.get().getDebt())
+                    .version(customer.get().getVersion())
                     .build();
 
             log.info("Updating customer to Database.");
@@ -67,6 +88,7 @@ public class CustomerComponent {
         throw new EntityNotFoundException("Customer with Id:" + changesCustomer.getCustomerId() + " does not exist.");
     }
 
+    @CacheEvict(cacheNames = CUSTOMERS_CACHE, key = "#customerId")
     @Transactional
     public void tryDeleteCustomer(Long customerId) throws EntityNotFoundException, FailedDeletionException {
         log.info("Searching customer with Id:{}.", customerId);
@@ -126,31 +148,62 @@ public class CustomerComponent {
     }
 
     @Transactional
-    public BigDecimal modifyDebt(BigDecimal amount, Long customerId) throws EntityNotFoundException {
-        log.info("Finding customer with Id:{}.", customerId);
-
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> {
-                    log.error("Customer with Id:{} could not be found.", customerId);
-                    return new EntityNotFoundException("Customer with Id:" + customerId + " not found.");
-                });
-
-        log.info("Successfully retrieved customer. Adding {} to debt.", amount);
+    public DebtEntry modifyDebt(BigDecimal amount, Long customerId, DebtEntry.entryType type) {
+        log.info("Recording {} of {} to debt of customer with Id:{}.", type, amount, customerId);
+
+        // Μόνο INSERT στο ledger, η γραμμή του πελάτη δεν κλειδώνεται σε κάθε πώληση
+        DebtEntry entry = DebtEntry.builder()
+                .customer(customerRepository.getReferenceById(customerId))
+                .amount(amount)
+                .type(type)
+                .createdAt(LocalDateTime.now())
+                .build();
+        debtEntryRepository.save(entry);
 
-        //Αν το χρέος είναι null, το θεωρούμε 0
-        BigDecimal currentDebt = customer.getDebt() != null ? customer.getDebt() : BigDecimal.ZERO;
+        log.info("Successfully recorded debt entry.");
+        return entry;
+    }
 
-        BigDecimal newDebt = currentDebt.add(amount);
-        customer.setDebt(newDebt);
+    @Transactional
+    public void tryRegisterPayment(Long customerId, BigDecimal amount) throws EntityNotFoundException {
+        log.info("Registering payment of {} for customer with Id:{}.", amount, customerId);
 
-        // Προαιρετικό save λόγω @Transactional
-        customerRepository.save(customer);
+        Customer customer = tryFindCustomer(customerId);
+        modifyDebt(amount.negate(), customer.getId(), DebtEntry.entryType.PAYMENT);
 
-        log.info("Successfully updated customer debt to {}.", newDebt);
+        log.info("Successfully registered payment.");
+    }
 
-        return newDebt;
+    @Scheduled(fixedDelayString = "${candle.debt.compaction-interval-ms:300000}")
+    @Transactional
+    public void compactDebtLedger() {
+        List<DebtEntryRepository.PendingEntry> pending = debtEntryRepository.findPendingEntries(Limit.of(compactionBatchSize));
+
+        while (!pending.isEmpty()) {
+            Map<Long, BigDecimal> totals = new HashMap<>();
+            List<Long> ids = new ArrayList<>(pending.size());
+            for (DebtEntryRepository.PendingEntry entry : pending) {
+                totals.merge(entry.getCustomerId(), entry.getAmount(), BigDecimal::add);
+                ids.add(entry.getId());
+            }
+
+            totals.forEach(customerRepository::addToDebt);
+            debtEntryRepository.markCompacted(ids);
+            log.info("Compacted {} debt entries for {} customers.", ids.size(), totals.size());
+
+            if (pending.size() < compactionBatchSize) {
+                return;
+            }
+            pending = debtEntryRepository.findPendingEntries(Limit.of(compactionBatchSize));
+        }
     }
 
+    /**
+     * The customer without its debt, for the write paths that only need to check it exists and reference it.
+     * The debt changes with every sale and payment, so it is kept out of the cache and read from the database
+     * (tryGetAll, tryGetCustomerByName, tryGetCustomerByPhone); this way debt entries never have to evict the cache.
+     */
+    @Cacheable(cacheNames = CUSTOMERS_CACHE, key = "#customerId")
     @Transactional(readOnly = true)
     public Customer tryFindCustomer(Long customerId) throws EntityNotFoundException {
         log.info("Trying to find customer with Id:{}.", customerId);
@@ -161,6 +214,22 @@ public class CustomerComponent {
                     return new EntityNotFoundException("Customer with id:" + customerId + " not found.");
                 });
 
-        return customer;
+        return Customer.builder()
+                .id(customer.getId())
+                .name(customer.getName())
+                .phoneNumber(customer.getPhoneNumber())
+                .version(customer.getVersion())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Customer> tryFindCustomers(Collection<Long> customerIds) {
+        log.info("Trying to find {} customers.", customerIds.size());
+
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        log.info("Found {} of {} customers.", customers.size(), customerIds.size());
+        return customers;
     }
 }
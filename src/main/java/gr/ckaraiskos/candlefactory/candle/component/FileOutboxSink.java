@@ -0,0 +1,67 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.OutboxEventView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Appends the events as JSON lines to a local file, which a consumer can tail.
+ * The batch is forced to disk before the relay marks it published.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "candle.outbox.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final JsonMapper jsonMapper;
+    private final Path path;
+
+    public FileOutboxSink(JsonMapper jsonMapper, @Value("${candle.outbox.file.path}") String path) {
+        this.jsonMapper = jsonMapper;
+        this.path = Path.of(path).toAbsolutePath();
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<OutboxEventView> events) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxEventView event : events) {
+            lines.writeBytes(jsonMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(path, CREATE, WRITE, APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            log.error("Could not write {} outbox events to {}: {}", events.size(), path, e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+}
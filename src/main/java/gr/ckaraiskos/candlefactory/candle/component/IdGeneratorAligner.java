@@ -0,0 +1,54 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The tables below used to get their ids from IDENTITY columns. The id_generator table starts
+ * from 0 (the first id handed out is next_val + 1), so on an existing database every segment is
+ * moved up to the current MAX(id) before the first insert. The table itself comes from schema.sql,
+ * so the row of a new segment is added here as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdGeneratorAligner implements InitializingBean {
+
+    // Το pkColumnValue κάθε @TableGenerator είναι το όνομα του πίνακα της οντότητας
+    private static final List<String> TABLES = List.of(
+            "customer", "customer_debt_entry", "daily_product_rollup", "outbox_event", "product", "production", "returned_wax",
+            "sale", "stock_movement", "stock_reservation", "storage", "wax_price", "worker", "worker_leaves"
+    );
+
+    // Εξασφαλίζει ότι το schema έχει ήδη δημιουργηθεί από το Hibernate
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        TABLES.forEach(this::align);
+    }
+
+    private void align(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+
+        int updated = jdbcTemplate.update("UPDATE id_generator SET next_val = ? WHERE entity_name = ? AND next_val < ?",
+                maxId, table, maxId);
+        if (updated > 0) {
+            log.info("Moved id generator of {} to {}.", table, maxId);
+            return;
+        }
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_generator WHERE entity_name = ?", Integer.class, table);
+        if (rows != null && rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_generator (entity_name, next_val) VALUES (?, ?)", table, maxId);
+            log.info("Initialized id generator of {} at {}.", table, maxId);
+        }
+    }
+}
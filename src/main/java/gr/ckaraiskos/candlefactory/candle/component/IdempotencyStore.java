@@ -0,0 +1,98 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gr.ckaraiskos.candlefactory.candle.exception.IdempotencyKeyReusedException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidIdempotencyKeyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of a write request by its Idempotency-Key header, so a client that retries
+ * gets the same response instead of a second sale, production or leave.
+ * A duplicate that arrives while the first request is still running waits for it and gets its response;
+ * only one of them executes. Failures are not stored, so a retry after an error runs again.
+ * Keys live in memory for a bounded time and number; assumes a single application instance.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyStore(@Value("${candle.idempotency.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${candle.idempotency.max-keys:10000}") long maxKeys) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Runs the action once per (operation, key); a null key means the client did not ask for idempotency.
+     * The request is kept with the key, and reusing the key with a different request is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String key, Object request, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            log.error("Invalid idempotency key for {}.", operation);
+            throw new InvalidIdempotencyKeyException("The " + HEADER + " header must have 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        // Το κλειδί είναι ανά λειτουργία, ώστε το ίδιο header σε άλλο endpoint να μη δίνει ξένη απάντηση
+        String storeKey = operation + ":" + key;
+        Entry entry = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(storeKey, entry);
+
+        if (existing != null) {
+            if (!existing.request().equals(request)) {
+                log.error("Idempotency key {} of {} reused with a different request.", key, operation);
+                throw new IdempotencyKeyReusedException("The " + HEADER + " was already used with a different request.");
+            }
+
+            log.info("Answering {} with idempotency key {} from the stored response.", operation, key);
+            return (T) await(existing.response());
+        }
+
+        try {
+            T response = action.get();
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException | Error ex) {
+            // Όσοι περιμένουν παίρνουν το ίδιο σφάλμα, η επόμενη επανάληψη όμως εκτελείται ξανά
+            entries.asMap().remove(storeKey, entry);
+            entry.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> response) {
+    }
+}
@@ -0,0 +1,128 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On startup, compares the indexes declared with @Table(indexes / uniqueConstraints) against the
+ * indexes that really exist in the database and warns about the missing ones. With ddl-auto=update
+ * an index can silently fail to be created (e.g. duplicate rows block a unique index), which turns
+ * the hot queries into full table scans. Components that rely on a unique index ask isMissing() and fall back
+ * to an explicit check when it is not there.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexAdvisor implements InitializingBean {
+
+    // Εξασφαλίζει ότι το schema έχει ήδη δημιουργηθεί από το Hibernate
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    private final Set<String> missingIndexes = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void afterPropertiesSet() {
+        checkIndexes();
+    }
+
+    public boolean isMissing(String indexName) {
+        return missingIndexes.contains(indexName);
+    }
+
+    private void checkIndexes() {
+        int missing = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null) {
+                    continue;
+                }
+
+                String tableName = table.name().isEmpty() ? toSnakeCase(entity.getName()) : table.name();
+                Collection<List<String>> existing = existingIndexes(metaData, connection, tableName);
+
+                for (Index index : table.indexes()) {
+                    missing += check(existing, tableName, index.name(), Arrays.stream(index.columnList().split(",")).map(String::trim).toList());
+                }
+                for (UniqueConstraint unique : table.uniqueConstraints()) {
+                    missing += check(existing, tableName, unique.name(), Arrays.asList(unique.columnNames()));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Could not read index metadata: {}", e.getMessage());
+            return;
+        }
+
+        if (missing == 0) {
+            log.info("All declared indexes are present.");
+        }
+    }
+
+    private int check(Collection<List<String>> existing, String tableName, String indexName, List<String> columns) {
+        List<String> expected = columns.stream().map(column -> column.toLowerCase(Locale.ROOT)).toList();
+
+        // Αρκεί ένα index που ξεκινά με τις ίδιες στήλες, με την ίδια σειρά
+        boolean covered = existing.stream().anyMatch(index -> index.size() >= expected.size()
+                && index.subList(0, expected.size()).equals(expected));
+        if (covered) {
+            return 0;
+        }
+
+        log.warn("Missing index {} on {}({}). Queries filtering on these columns will scan the table.",
+                indexName, tableName, String.join(", ", expected));
+        missingIndexes.add(indexName);
+        return 1;
+    }
+
+    private Collection<List<String>> existingIndexes(DatabaseMetaData metaData, Connection connection, String tableName) throws SQLException {
+        String name = metaData.storesUpperCaseIdentifiers() ? tableName.toUpperCase(Locale.ROOT) : tableName;
+
+        // index -> (θέση στήλης -> στήλη)
+        Map<String, Map<Short, String>> indexes = new TreeMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, false)) {
+            while (rows.next()) {
+                String indexName = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                indexes.computeIfAbsent(indexName, key -> new TreeMap<>())
+                        .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<List<String>> result = new ArrayList<>();
+        indexes.values().forEach(columns -> result.add(new ArrayList<>(columns.values())));
+        return result;
+    }
+
+    private String toSnakeCase(String entityName) {
+        return entityName.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
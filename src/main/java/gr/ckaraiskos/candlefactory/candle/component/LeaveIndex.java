@@ -0,0 +1,250 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Leave;
+import gr.ckaraiskos.candlefactory.candle.repository.LeaveRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.WorkerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory interval index of all leaves and the set of workers, used by LeaveRules instead of a range scan and a count per request.
+ * Changes are applied after their transaction commits, so the index only ever shows committed leaves.
+ * A transaction that validates against the index and then changes the leaves or the workers holds the change lock
+ * from before its validation until it completes, so the next one validates against the index with its change applied.
+ * Assumes a single application instance writes to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaveIndex implements InitializingBean {
+
+    /**
+     * A leave as the index sees it; leaveId is null for a leave of a plan that is not saved yet.
+     */
+    public record Interval(Long leaveId, Long workerId, LocalDate startDate, LocalDate endDate) {
+
+        public static Interval of(Leave leave) {
+            return new Interval(leave.getId(), leave.getWorker().getId(), leave.getStartDate(), leave.getEndDate());
+        }
+    }
+
+    /**
+     * The overlaps of every leave of a plan and the number of workers, read from the same state of the index.
+     */
+    public record PlanOverlaps(List<List<Interval>> overlapping, int workerCount) {
+    }
+
+    private final LeaveRepository leaveRepository;
+    private final WorkerRepository workerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Μία αλλαγή αδειών ή εργαζομένων τη φορά, από τον έλεγχο μέχρι να εφαρμοστεί στο index
+    private final ReentrantLock changeLock = new ReentrantLock();
+    private final LeaveIntervalTree tree = new LeaveIntervalTree();
+    private final Map<Long, Interval> leaves = new HashMap<>();
+    private final Set<Long> workers = new HashSet<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        workers.addAll(workerRepository.findAllIds());
+        leaveRepository.findAllIntervals()
+                .forEach(leave -> put(new Interval(leave.getId(), leave.getWorkerId(), leave.getStartDate(), leave.getEndDate())));
+
+        log.info("Loaded {} leaves of {} workers.", leaves.size(), workers.size());
+    }
+
+    public int workerCount() {
+        lock.readLock().lock();
+        try {
+            return workers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The leaves that overlap [startDate, endDate], leaving out the leave with excludedLeaveId (the one being edited).
+     */
+    public List<Interval> overlapping(LocalDate startDate, LocalDate endDate, Long excludedLeaveId) {
+        List<Interval> overlapping = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            tree.forEachOverlapping(startDate.toEpochDay(), endDate.toEpochDay(), leave -> {
+                if (!leave.leaveId().equals(excludedLeaveId)) {
+                    overlapping.add(leave);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return overlapping;
+    }
+
+    /**
+     * The leaves that overlap each leave of the plan, as they would be once the whole plan is applied:
+     * the stored leaves except the replaced ones, plus the other leaves of the plan.
+     */
+    public PlanOverlaps overlappingOfPlan(List<Interval> plan, Set<Long> replacedLeaveIds) {
+        LeaveIntervalTree planTree = new LeaveIntervalTree();
+        for (int i = 0; i < plan.size(); i++) {
+            planTree.insert(i, plan.get(i));
+        }
+
+        List<List<Interval>> result = new ArrayList<>(plan.size());
+        lock.readLock().lock();
+        try {
+            for (Interval planned : plan) {
+                List<Interval> overlapping = new ArrayList<>();
+                long start = planned.startDate().toEpochDay();
+                long end = planned.endDate().toEpochDay();
+
+                tree.forEachOverlapping(start, end, leave -> {
+                    if (!replacedLeaveIds.contains(leave.leaveId())) {
+                        overlapping.add(leave);
+                    }
+                });
+                planTree.forEachOverlapping(start, end, leave -> {
+                    if (leave != planned) {
+                        overlapping.add(leave);
+                    }
+                });
+
+                result.add(overlapping);
+            }
+
+            return new PlanOverlaps(result, workers.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the change lock for the rest of the current transaction; it is released after the transaction completes,
+     * when its changes are already in the index. Call it before reading the index for validation and before
+     * any database write, so a transaction never waits for the lock while holding row locks.
+     */
+    public void lockChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Leave changes must run inside a transaction.");
+        }
+        if (TransactionSynchronizationManager.hasResource(changeLock)) {
+            return;
+        }
+
+        changeLock.lock();
+        TransactionSynchronizationManager.bindResource(changeLock, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(changeLock);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(changeLock, Boolean.TRUE);
+            }
+
+            // Τρέχει μετά τα afterCommit, άρα η αλλαγή είναι ήδη στο index
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(changeLock);
+                changeLock.unlock();
+            }
+        });
+    }
+
+    public void recordLeave(Leave leave) {
+        Interval interval = Interval.of(leave);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(interval.leaveId());
+                put(interval);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeLeave(Long leaveId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(leaveId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void recordWorker(Long workerId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                workers.add(workerId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeWorker(Long workerId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                workers.remove(workerId);
+                // Οι άδειες του εργαζόμενου σβήνονται μαζί του
+                leaves.values().stream()
+                        .filter(leave -> leave.workerId().equals(workerId))
+                        .map(Interval::leaveId)
+                        .toList()
+                        .forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void put(Interval interval) {
+        leaves.put(interval.leaveId(), interval);
+        tree.insert(interval.leaveId(), interval);
+    }
+
+    private void remove(Long leaveId) {
+        Interval interval = leaves.remove(leaveId);
+        if (interval != null) {
+            tree.delete(leaveId, interval);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import java.util.function.Consumer;
+
+/**
+ * AVL tree of leaves ordered by start day, where every node also keeps the latest end day of its subtree.
+ * Finding the leaves that overlap a period skips every subtree that ends before it or starts after it,
+ * so a query costs O(log n + k) for k overlapping leaves. Not thread-safe, LeaveIndex guards it.
+ */
+final class LeaveIntervalTree {
+
+    private static final class Node {
+        private final long start;
+        private final long end;
+        private final long key; // ξεχωρίζει άδειες με την ίδια ημέρα έναρξης
+        private final LeaveIndex.Interval interval;
+
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long key, LeaveIndex.Interval interval) {
+            this.start = interval.startDate().toEpochDay();
+            this.end = interval.endDate().toEpochDay();
+            this.key = key;
+            this.interval = interval;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+
+    void insert(long key, LeaveIndex.Interval interval) {
+        root = insert(root, new Node(key, interval));
+    }
+
+    void delete(long key, LeaveIndex.Interval interval) {
+        root = delete(root, interval.startDate().toEpochDay(), key);
+    }
+
+    /**
+     * Visits every interval with startDay <= end and endDay >= start, in order of start day.
+     */
+    void forEachOverlapping(long start, long end, Consumer<LeaveIndex.Interval> visitor) {
+        forEachOverlapping(root, start, end, visitor);
+    }
+
+    private static void forEachOverlapping(Node node, long start, long end, Consumer<LeaveIndex.Interval> visitor) {
+        if (node == null || node.maxEnd < start) {
+            return;
+        }
+
+        forEachOverlapping(node.left, start, end, visitor);
+        if (node.start > end) {
+            return; // Όλο το δεξί υποδέντρο ξεκινά ακόμα αργότερα
+        }
+        if (node.end >= start) {
+            visitor.accept(node.interval);
+        }
+        forEachOverlapping(node.right, start, end, visitor);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+
+        if (compare(inserted.start, inserted.key, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, long start, long key) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(start, key, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, key);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(long start, long key, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(key, node.key);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = Math.max(node.end, Math.max(maxEnd(node.left), maxEnd(node.right)));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static long maxEnd(Node node) {
+        return node == null ? Long.MIN_VALUE : node.maxEnd;
+    }
+}
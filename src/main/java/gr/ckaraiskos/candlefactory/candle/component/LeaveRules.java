@@ -1,6 +1,7 @@
 package gr.ckaraiskos.candlefactory.candle.component;
 
 import gr.ckaraiskos.candlefactory.candle.dto.LeaveDto;
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveView;
 import gr.ckaraiskos.candlefactory.candle.entity.Leave;
 import gr.ckaraiskos.candlefactory.candle.entity.Worker;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
@@ -9,15 +10,19 @@ import gr.ckaraiskos.candlefactory.candle.repository.LeaveRepository;
 import gr.ckaraiskos.candlefactory.candle.repository.WorkerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,20 +32,15 @@ public class LeaveRules {
 
     private final LeaveRepository leaveRepository;
     private final WorkerRepository workerRepository;
+    private final LeaveIndex leaveIndex;
+    private final LeaveSummaryComponent leaveSummaryComponent;
 
+    @CacheEvict(cacheNames = LeaveSummaryComponent.LEAVE_DAYS_CACHE, allEntries = true)
     @Transactional
     public void leaveDeletion(LeaveDto deletingLeave) throws LeaveComponentFailureException {
-        Optional<Leave> leave = leaveRepository.findById(deletingLeave.getLeaveId());
-
-        //Update of leave dates for the worker
-        int days = leave.get().calculateLeaveDays();
-        Worker worker = leave.get().getWorker();
-        int currentDays = worker.getDaysOfLeave();
-        worker.setDaysOfLeave(currentDays - days);
-        workerRepository.save(worker);
-        //
-
+        leaveIndex.lockChanges();
         leaveRepository.deleteById(deletingLeave.getLeaveId());
+        leaveIndex.removeLeave(deletingLeave.getLeaveId());
 
         Optional<Leave> deletionCheck = leaveRepository.findById(deletingLeave.getLeaveId());
         if (deletionCheck.isPresent()) {
@@ -49,41 +49,31 @@ public class LeaveRules {
         }
     }
 
-    @Transactional
     protected void leaveValidation(LeaveDto requestedLeave) throws LeaveComponentFailureException {
         log.info("Checking validity of leave.");
 
-        List<Leave> overlapping = leaveRepository.findOverlappingLeaves(requestedLeave.getStartDate(), requestedLeave.getEndDate());
+        // Από το LeaveIndex στη μνήμη, χωρίς range scan και count στη βάση
+        List<LeaveIndex.Interval> overlapping = leaveIndex.overlapping(requestedLeave.getStartDate(), requestedLeave.getEndDate(),
+                requestedLeave.getLeaveId());
+
+        checkAbsenceRule(requestedLeave.getWorkerId(), overlapping, leaveIndex.workerCount());
+    }
 
+    private void checkAbsenceRule(Long workerId, List<LeaveIndex.Interval> overlapping, long totalWorkers) throws LeaveComponentFailureException {
         // Έλεγχος αν ο ΙΔΙΟΣ εργαζόμενος έχει ήδη άδεια (εκτός αν είναι edit στον εαυτό του)
-        boolean isWorkerAlreadyOnLeave = overlapping.stream()
-                .filter(leave -> {
-                    if (requestedLeave.getLeaveId() != null) {
-                        return !leave.getId().equals(requestedLeave.getLeaveId());
-                    }
-                    return true;
-                })
-                .anyMatch(leave -> leave.getWorker().getId().equals(requestedLeave.getWorkerId()));
-
-        if (isWorkerAlreadyOnLeave) {
-            throw new LeaveComponentFailureException("Leave declined: Worker already has a leave during these dates.");
+        Set<Long> workersOnLeaveIds = new HashSet<>();
+        for (LeaveIndex.Interval leave : overlapping) {
+            if (leave.workerId().equals(workerId)) {
+                throw new LeaveComponentFailureException("Leave declined: Worker already has a leave during these dates.");
+            }
+            // Μαζεύουμε τα μοναδικά IDs των απόντων
+            workersOnLeaveIds.add(leave.workerId());
         }
 
-        // Βρίσκουμε ποιοι ΑΛΛΟΙ λείπουν
-        List<Leave> actualOverlappingOthers = overlapping.stream()
-                .filter(leave -> requestedLeave.getLeaveId() == null || !leave.getId().equals(requestedLeave.getLeaveId()))
-                .toList();
-
-        // Μαζεύουμε τα μοναδικά IDs των απόντων
-        Set<Long> workersOnLeaveIds = actualOverlappingOthers.stream()
-                .map(l -> l.getWorker().getId())
-                .collect(Collectors.toSet());
-
         // Προσθέτουμε τον εργαζόμενο που ζητάει άδεια
-        workersOnLeaveIds.add(requestedLeave.getWorkerId());
+        workersOnLeaveIds.add(workerId);
 
         long totalAbsentWorkers = workersOnLeaveIds.size();
-        long totalWorkers = workerRepository.count();
 
         log.info("Total workers absent would be: {} out of {}", totalAbsentWorkers, totalWorkers);
 
@@ -106,9 +96,12 @@ public class LeaveRules {
         );
     }
 
+    @CacheEvict(cacheNames = LeaveSummaryComponent.LEAVE_DAYS_CACHE, allEntries = true)
     @Transactional
     public Leave leaveAddition(LeaveDto requestedLeave) throws EntityNotFoundException, LeaveComponentFailureException {
 
+        // Ως το commit, ώστε μια ταυτόχρονη αίτηση να ελεγχθεί με αυτή την άδεια στο index
+        leaveIndex.lockChanges();
         leaveValidation(requestedLeave);
 
         Leave newLeave = Leave.builder()
@@ -116,27 +109,22 @@ public class LeaveRules {
                 .endDate(requestedLeave.getEndDate())
                 .build();
 
-        //Update of leave dates for the worker
-        log.info("Adding worker leave days!");
-        int days = newLeave.calculateLeaveDays();
         Worker worker = workerRepository.findById(requestedLeave.getWorkerId())
                 .orElseThrow(() -> new EntityNotFoundException("Worker with id " + requestedLeave.getWorkerId() + " not found."));
-        int currentDays = worker.getDaysOfLeave();
-        worker.setDaysOfLeave(currentDays + days);
-
         newLeave.setWorker(worker);
-        workerRepository.save(worker);
-        //
 
         log.info("Adding leave to Database.");
         leaveRepository.save(newLeave);
+        leaveIndex.recordLeave(newLeave);
 
         return newLeave;
     }
 
+    @CacheEvict(cacheNames = LeaveSummaryComponent.LEAVE_DAYS_CACHE, allEntries = true)
     @Transactional
     public Leave leaveChanges(LeaveDto requestedLeave) throws EntityNotFoundException, LeaveComponentFailureException {
 
+        leaveIndex.lockChanges();
         leaveValidation(requestedLeave);
 
         Optional<Leave> existingLeave = leaveRepository.findById(requestedLeave.getLeaveId());
@@ -146,20 +134,11 @@ public class LeaveRules {
                     .endDate(requestedLeave.getEndDate())
                     .build();
 
-            //Update of leave dates for the worker
-            log.info("Updating worker leave days!");
-            int oldDays = existingLeave.get().calculateLeaveDays();
-            int newDays = updatedLeave.calculateLeaveDays();
-            Worker worker = existingLeave.get().getWorker();
-            int currentDays = worker.getDaysOfLeave();
-            worker.setDaysOfLeave(currentDays - oldDays + newDays);
-
-            updatedLeave.setWorker(worker);
-            workerRepository.save(worker);
-            //
+            updatedLeave.setWorker(existingLeave.get().getWorker());
 
             log.info("Changing leave to Database.");
             leaveRepository.save(updatedLeave);
+            leaveIndex.recordLeave(updatedLeave);
 
             log.info("Successfully changed leave to Database.");
             return updatedLeave;
@@ -169,9 +148,92 @@ public class LeaveRules {
         throw new EntityNotFoundException("No leave found with id: " + requestedLeave.getLeaveId() + ".");
     }
 
+    /**
+     * Validates a whole plan of new and edited leaves as the schedule would look after it, then saves it in one transaction.
+     * Every leave of the plan is checked against the same state of the LeaveIndex, so intermediate states do not matter.
+     * Holds the change lock of the index until the plan is committed and applied to it.
+     */
+    @CacheEvict(cacheNames = LeaveSummaryComponent.LEAVE_DAYS_CACHE, allEntries = true)
+    @Transactional
+    public List<Leave> leavePlan(List<LeaveDto> plan) throws EntityNotFoundException, LeaveComponentFailureException {
+        log.info("Checking plan of {} leaves.", plan.size());
+        leaveIndex.lockChanges();
+
+        Set<Long> editedLeaveIds = new HashSet<>();
+        for (LeaveDto plannedLeave : plan) {
+            if (plannedLeave.getLeaveId() != null && !editedLeaveIds.add(plannedLeave.getLeaveId())) {
+                throw new LeaveComponentFailureException("Leave with id " + plannedLeave.getLeaveId() + " appears more than once in the plan.");
+            }
+        }
+
+        // Ένα IN query για τις άδειες που αλλάζουν και ένα για τους εργαζόμενους
+        Map<Long, Leave> existingLeaves = leaveRepository.findAllById(editedLeaveIds).stream()
+                .collect(Collectors.toMap(Leave::getId, Function.identity()));
+        List<Long> workerIds = new ArrayList<>(plan.size());
+        for (LeaveDto plannedLeave : plan) {
+            if (plannedLeave.getLeaveId() == null) {
+                workerIds.add(plannedLeave.getWorkerId());
+                continue;
+            }
+
+            Leave existingLeave = existingLeaves.get(plannedLeave.getLeaveId());
+            if (existingLeave == null) {
+                log.error("Failed to change leave with id: {}.", plannedLeave.getLeaveId());
+                throw new EntityNotFoundException("No leave found with id: " + plannedLeave.getLeaveId() + ".");
+            }
+            workerIds.add(existingLeave.getWorker().getId());
+        }
+        Map<Long, Worker> workers = workerRepository.findAllById(new HashSet<>(workerIds)).stream()
+                .collect(Collectors.toMap(Worker::getId, Function.identity()));
+
+        List<LeaveIndex.Interval> intervals = new ArrayList<>(plan.size());
+        for (int line = 0; line < plan.size(); line++) {
+            LeaveDto plannedLeave = plan.get(line);
+            if (!workers.containsKey(workerIds.get(line))) {
+                throw new EntityNotFoundException("Worker with id " + workerIds.get(line) + " not found.");
+            }
+            intervals.add(new LeaveIndex.Interval(plannedLeave.getLeaveId(), workerIds.get(line), plannedLeave.getStartDate(), plannedLeave.getEndDate()));
+        }
+
+        LeaveIndex.PlanOverlaps overlaps = leaveIndex.overlappingOfPlan(intervals, editedLeaveIds);
+        List<String> violations = new ArrayList<>();
+        for (int line = 0; line < intervals.size(); line++) {
+            try {
+                checkAbsenceRule(intervals.get(line).workerId(), overlaps.overlapping().get(line), overlaps.workerCount());
+            } catch (LeaveComponentFailureException e) {
+                violations.add("Line " + line + ": " + e.getMessage());
+            }
+        }
+        if (!violations.isEmpty()) {
+            log.error("Plan declined with {} violations.", violations.size());
+            throw new LeaveComponentFailureException(String.join(" ", violations));
+        }
+
+        List<Leave> plannedLeaves = new ArrayList<>(plan.size());
+        for (int line = 0; line < plan.size(); line++) {
+            LeaveDto plannedLeave = plan.get(line);
+            Worker worker = workers.get(workerIds.get(line));
+
+            Leave leave = plannedLeave.getLeaveId() != null
+                    ? existingLeaves.get(plannedLeave.getLeaveId())
+                    : Leave.builder().worker(worker).build();
+
+            leave.setStartDate(plannedLeave.getStartDate());
+            leave.setEndDate(plannedLeave.getEndDate());
+            plannedLeaves.add(leave);
+        }
+
+        log.info("Saving plan of {} leaves for {} workers.", plannedLeaves.size(), workers.size());
+        leaveRepository.saveAll(plannedLeaves);
+        plannedLeaves.forEach(leaveIndex::recordLeave);
+
+        log.info("Successfully saved plan.");
+        return plannedLeaves;
+    }
+
     @Transactional(readOnly = true)
-    public List<Leave> leavesFind(Long workerId) throws LeaveComponentFailureException {
-        List<Leave> leaves = leaveRepository.findAllByWorker_Id(workerId);
+    public List<LeaveView> leavesFind(Long workerId) throws LeaveComponentFailureException {
+        List<LeaveView> leaves = leaveRepository.findViewsByWorkerId(workerId);
 
         if(leaves.isEmpty()) {
             log.error("No leave found for worker id: {}.", workerId);
@@ -179,12 +241,12 @@ public class LeaveRules {
         }
 
         log.info("Found leaves with worker id: {}.", workerId);
-        return leaves;
+        return withDaysOfLeave(leaves);
     }
 
     @Transactional(readOnly = true)
-    public List<Leave> leavesDayFind() throws LeaveComponentFailureException {
-        List<Leave> leaves = leaveRepository.findOverlappingLeaves(LocalDate.now(),  LocalDate.now());
+    public List<LeaveView> leavesDayFind() throws LeaveComponentFailureException {
+        List<LeaveView> leaves = leaveRepository.findOverlappingViews(LocalDate.now(), LocalDate.now());
 
         if(leaves.isEmpty()) {
             log.error("No leave found for date {}.", LocalDate.now());
@@ -192,15 +254,15 @@ public class LeaveRules {
         }
 
         log.info("Found leaves for date {}.", LocalDate.now());
-        return leaves;
+        return withDaysOfLeave(leaves);
     }
 
-    @Scheduled(cron = "0 0 0 1 1 ?") // 1η Ιανουαρίου τα μεσάνυχτα
-    public void resetLeaveCounters() {
-        List<Worker> allWorkers = workerRepository.findAll();
-        for (Worker w : allWorkers) {
-            w.setDaysOfLeave(0); // Μηδενισμός για το νέο έτος
-        }
-        workerRepository.saveAll(allWorkers);
+    // Οι ημέρες άδειας του τρέχοντος έτους, από την cache του LeaveSummaryComponent
+    private List<LeaveView> withDaysOfLeave(List<LeaveView> leaves) {
+        Map<Long, Integer> daysOfLeave = leaveSummaryComponent.tryGetLeaveDays(LocalDate.now().getYear());
+
+        return leaves.stream()
+                .map(leave -> leave.withWorkerDaysOfLeave(daysOfLeave.getOrDefault(leave.workerId(), 0)))
+                .toList();
     }
 }
@@ -0,0 +1,38 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.repository.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Days of leave per worker and year, summed from the leaves themselves instead of a counter kept on Worker.
+ * One GROUP BY per year, cached until the next change to the leaves (see the @CacheEvict of LeaveRules).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaveSummaryComponent {
+
+    public static final String LEAVE_DAYS_CACHE = "leaveDays";
+
+    private final LeaveRepository leaveRepository;
+
+    @Cacheable(cacheNames = LEAVE_DAYS_CACHE, key = "#year")
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> tryGetLeaveDays(int year) {
+        log.info("Trying to sum days of leave of year {}.", year);
+
+        Map<Long, Integer> days = leaveRepository.sumDaysByWorker(LocalDate.ofYearDay(year, 1), LocalDate.of(year, 12, 31)).stream()
+                .collect(Collectors.toUnmodifiableMap(LeaveRepository.WorkerDays::getWorkerId, worker -> worker.getDays().intValue()));
+
+        log.info("Successfully summed days of leave of {} workers.", days.size());
+        return days;
+    }
+}
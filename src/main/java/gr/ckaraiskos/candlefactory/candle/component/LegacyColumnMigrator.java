@@ -0,0 +1,92 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ddl-auto=update adds new columns but never touches the ones an entity no longer maps, and those are NOT NULL,
+ * so every insert would fail on an existing database. This runs once at startup and cleans them up:
+ * quantities that used to be DOUBLE kilos or pieces are copied into their BIGINT thousandths column (see Quantity)
+ * before the old column is dropped, and columns replaced by a query, like worker.days_of_leave, are just dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyColumnMigrator implements InitializingBean {
+
+    private record LegacyColumn(String table, String legacy, String milli) {
+    }
+
+    private static final List<LegacyColumn> COLUMNS = List.of(
+            new LegacyColumn("sale", "quantity", "quantity_milli"),
+            new LegacyColumn("production", "quantity", "quantity_milli"),
+            new LegacyColumn("storage", "quantity", "quantity_milli"),
+            new LegacyColumn("stock_movement", "quantity", "quantity_milli"),
+            new LegacyColumn("stock_reservation", "quantity", "quantity_milli"),
+            new LegacyColumn("returned_wax", "weight", "weight_milli"),
+            new LegacyColumn("daily_product_rollup", "sold_quantity", "sold_quantity_milli"),
+            new LegacyColumn("daily_product_rollup", "produced_quantity", "produced_quantity_milli")
+    );
+
+    private static final List<LegacyColumn> DROPPED_COLUMNS = List.of(
+            new LegacyColumn("worker", "days_of_leave", null) // βλ. LeaveSummaryComponent
+    );
+
+    // Εξασφαλίζει ότι το schema έχει ήδη δημιουργηθεί από το Hibernate
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        COLUMNS.forEach(this::migrate);
+        DROPPED_COLUMNS.forEach(this::drop);
+    }
+
+    // Κάθε βήμα ελέγχει ξανά τις στήλες, ώστε αν η εφαρμογή σταματήσει ανάμεσα στα δύο να ξανατρέξει κανονικά
+    private void migrate(LegacyColumn column) {
+        // Χωρίς τη νέα στήλη δεν αντιγράφουμε ούτε σβήνουμε τίποτα, αλλιώς χάνονται οι ποσότητες
+        if (!exists(column.table(), column.milli())) {
+            return;
+        }
+
+        if (exists(column.table(), column.legacy())) {
+            int copied = jdbcTemplate.update("UPDATE " + column.table() + " SET " + column.milli() + " = ROUND(" + column.legacy() + " * 1000)"
+                    + " WHERE " + column.legacy() + " IS NOT NULL");
+            log.info("Copied {} rows of {}.{} to {}.", copied, column.table(), column.legacy(), column.milli());
+        }
+
+        drop(column);
+    }
+
+    private void drop(LegacyColumn column) {
+        if (!exists(column.table(), column.legacy())) {
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + column.table() + " DROP COLUMN " + column.legacy());
+        log.info("Dropped {}.{}.", column.table(), column.legacy());
+    }
+
+    private boolean exists(String table, String column) {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upperCase = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet rows = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                    upperCase ? table.toUpperCase(Locale.ROOT) : table,
+                    upperCase ? column.toUpperCase(Locale.ROOT) : column)) {
+                return rows.next();
+            }
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,72 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.OutboxEventView;
+import gr.ckaraiskos.candlefactory.candle.entity.OutboxEvent;
+import gr.ckaraiskos.candlefactory.candle.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes the domain events into the outbox table and hands them to the sinks.
+ * Recording joins the caller's transaction, so the event commits or rolls back with the change itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxComponent {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent.eventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(jsonMapper.writeValueAsString(payload))
+                .createdAt(LocalDateTime.now())
+                .build();
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Delivers the oldest unpublished events to every sink and marks them published, in one transaction.
+     * If a sink fails the transaction rolls back and the same batch is delivered again next time.
+     * Returns the number of events delivered.
+     */
+    @Transactional
+    public int tryRelayBatch(List<OutboxSink> sinks, int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findPending(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEventView> views = events.stream().map(OutboxEventView::of).toList();
+        for (OutboxSink sink : sinks) {
+            sink.publish(views);
+        }
+
+        outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList());
+        log.info("Relayed {} outbox events up to id {}.", events.size(), events.get(events.size() - 1).getId());
+
+        return events.size();
+    }
+
+    @Transactional
+    public int tryPurgePublished(LocalDateTime before) {
+        int purged = outboxEventRepository.deletePublishedBefore(before);
+        if (purged > 0) {
+            log.info("Purged {} published outbox events.", purged);
+        }
+
+        return purged;
+    }
+}
@@ -0,0 +1,56 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox in the background: batch after batch, each in its own transaction, until the backlog is empty.
+ * A failing sink stops the run; the remaining events wait for the next one. Without any sink the events are kept.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxComponent outboxComponent;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+    private final long retentionHours;
+
+    public OutboxRelay(OutboxComponent outboxComponent, List<OutboxSink> sinks,
+                       @Value("${candle.outbox.relay-batch-size:500}") int batchSize,
+                       @Value("${candle.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxComponent = outboxComponent;
+        this.sinks = sinks;
+        this.batchSize = Math.max(1, batchSize);
+        this.retentionHours = retentionHours;
+
+        log.info("Outbox sinks: {}.", sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${candle.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+
+        try {
+            // Γεμάτη παρτίδα σημαίνει ότι μάλλον υπάρχουν κι άλλα γεγονότα
+            int relayed;
+            do {
+                relayed = outboxComponent.tryRelayBatch(sinks, batchSize);
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${candle.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        outboxComponent.tryPurgePublished(LocalDateTime.now().minusHours(retentionHours));
+    }
+}
@@ -0,0 +1,17 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.OutboxEventView;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox events. Every sink bean receives every batch, in event id order.
+ * A sink throws when it could not take the batch; the batch then stays unpublished and is delivered again,
+ * to every sink, on the next run of the relay.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxEventView> events);
+}
@@ -8,21 +8,32 @@ import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
 import gr.ckaraiskos.candlefactory.candle.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ProductComponent {
 
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String PRODUCT_CATALOGUE_CACHE = "productCatalogue";
+
     private final StorageComponent storageComponent;
     private final ProductRepository productRepository;
 
+    @CacheEvict(cacheNames = PRODUCT_CATALOGUE_CACHE, allEntries = true)
     @Transactional
     public Product tryAddProduct(ProductDto newProductDto) throws EntityAlreadyExistsException {
         log.info("Trying to add product.");
@@ -62,6 +73,10 @@ public class ProductComponent {
         return newProduct;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS_CACHE, key = "#updateProductDto.productId"),
+            @CacheEvict(cacheNames = PRODUCT_CATALOGUE_CACHE, allEntries = true)
+    })
     @Transactional
     public Product tryUpdateProduct(ProductDto updateProductDto) throws EntityNotFoundException, EntityAlreadyExistsException {
         log.info("Trying to update product.");
@@ -106,6 +121,10 @@ public class ProductComponent {
         return existingProduct;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS_CACHE, key = "#productId"),
+            @CacheEvict(cacheNames = PRODUCT_CATALOGUE_CACHE, allEntries = true)
+    })
     @Transactional
     public void tryHardDeleteProduct(Long productId) throws EntityNotFoundException, FailedDeletionException, DataIntegrityViolationException {
         log.info("Trying to HARD delete product.");
@@ -126,6 +145,10 @@ public class ProductComponent {
         log.info("Hard deleted product successfully.");
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = PRODUCTS_CACHE, key = "#productId"),
+            @CacheEvict(cacheNames = PRODUCT_CATALOGUE_CACHE, allEntries = true)
+    })
     @Transactional
     public void trySoftDeleteProduct(Long productId) throws EntityNotFoundException {
         log.info("Trying to SOFT delete product.");
@@ -144,6 +167,7 @@ public class ProductComponent {
         productRepository.save(product);
     }
 
+    @Cacheable(cacheNames = PRODUCT_CATALOGUE_CACHE, key = "'all'")
     @Transactional(readOnly = true)
     public List<Product> tryGetAllProducts() throws EntityNotFoundException {
         log.info("Trying to get all products");
@@ -196,7 +220,8 @@ public class ProductComponent {
         throw new EntityNotFoundException("Product with material: " + material + " and product code: " + productCode + " not found.");
     }
 
-    @Transactional
+    @Cacheable(cacheNames = PRODUCTS_CACHE, key = "#productId")
+    @Transactional(readOnly = true)
     public Product tryFindProduct(Long productId) throws EntityNotFoundException {
         log.info("Trying to find product with id {}", productId);
 
@@ -208,4 +233,15 @@ public class ProductComponent {
 
         return product;
     }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Product> tryFindProducts(Collection<Long> productIds) {
+        log.info("Trying to find {} products.", productIds.size());
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        log.info("Found {} of {} products.", products.size(), productIds.size());
+        return products;
+    }
 }
@@ -1,21 +1,29 @@
 package gr.ckaraiskos.candlefactory.candle.component;
 
+import gr.ckaraiskos.candlefactory.candle.dto.KeysetPage;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
 import gr.ckaraiskos.candlefactory.candle.dto.ProductionDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionView;
+import gr.ckaraiskos.candlefactory.candle.entity.OutboxEvent;
 import gr.ckaraiskos.candlefactory.candle.entity.Product;
 import gr.ckaraiskos.candlefactory.candle.entity.Production;
-import gr.ckaraiskos.candlefactory.candle.entity.Storage;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidCursorException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
 import gr.ckaraiskos.candlefactory.candle.repository.ProductionRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
 
 @Slf4j
 @Component
@@ -25,6 +33,12 @@ public class ProductionComponent {
     private final ProductionRepository productionRepository;
     private final StorageComponent storageComponent;
     private final ProductComponent productComponent;
+    private final RollupComponent rollupComponent;
+    private final OutboxComponent outboxComponent;
+    private final IndexAdvisor indexAdvisor;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String DUPLICATE_CONSTRAINT = "uk_production_date_product";
 
     @Transactional
     public Production tryAddProduction(ProductionDto productionDto) throws EntityAlreadyExistsException, EntityNotFoundException {
@@ -32,32 +46,44 @@ public class ProductionComponent {
 
         Product product = productComponent.tryFindProduct(productionDto.getProductId());
 
-        log.info("Checking if production already exists.");
-        Optional<Production> production = productionRepository.findByDateOfProductionAndProduct(productionDto.getDate(), product);
-        if (production.isPresent()) {
-            log.info("Production already exists.");
-            throw new EntityAlreadyExistsException("Production already exists");
+        // Σε βάση με παλιά διπλότυπα το ddl-auto δεν μπορεί να φτιάξει το unique index, οπότε ελέγχουμε με SELECT
+        if (indexAdvisor.isMissing(DUPLICATE_CONSTRAINT)) {
+            log.info("Checking if production already exists.");
+            if (productionRepository.existsByDateOfProductionAndProductId(productionDto.getDate(), product.getId())) {
+                log.info("Production already exists.");
+                throw new EntityAlreadyExistsException("Production already exists");
+            }
         }
 
         Production newProduction = Production.builder()
                 .dateOfProduction(productionDto.getDate())
                 .product(product)
-                .quantity(productionDto.getQuantity())
+                .quantityMilli(productionDto.getQuantityMilli())
                 .build();
 
+        // Το unique index (date_of_production, product_id) κάνει τον έλεγχο διπλοτύπου, χωρίς επιπλέον SELECT
         log.info("Saving new production.");
-        productionRepository.save(newProduction);
+        try {
+            productionRepository.saveAndFlush(newProduction);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateProduction(e)) {
+                throw e;
+            }
+            log.info("Production already exists.");
+            throw new EntityAlreadyExistsException("Production already exists");
+        }
 
         //Storage Update
-        Storage storage = storageComponent.tryGetStorageByProductId(productionDto.getProductId());
-        storageComponent.tryUpdateStorage(storage.getId(), storage.getQuantity() + productionDto.getQuantity());
+        storageComponent.tryIncreaseStorage(product.getId(), productionDto.getQuantityMilli());
+        rollupComponent.recordProduction(newProduction.getDateOfProduction(), product.getId(), newProduction.getQuantityMilli());
+        outboxComponent.record(OutboxEvent.eventType.PRODUCTION_CREATED, newProduction.getId(), ProductionView.of(newProduction));
         log.info("Added production successfully.");
 
         return newProduction;
     }
 
     @Transactional
-    public Production tryUpdateProduction(ProductionDto productionDto) throws EntityNotFoundException {
+    public Production tryUpdateProduction(ProductionDto productionDto) throws EntityNotFoundException, StorageViolationException {
         log.info("Trying to update production.");
 
         Production production = productionRepository.findById(productionDto.getId())
@@ -69,30 +95,38 @@ public class ProductionComponent {
 
         if(!production.getProduct().getId().equals(productionDto.getProductId())) {
             // Fix the previous product
-            Storage oldStorage = storageComponent.tryGetStorageByProductId(production.getProduct().getId());
-            storageComponent.tryUpdateStorage(oldStorage.getId(), oldStorage.getQuantity() -  production.getQuantity());
+            storageComponent.tryDecreaseStorage(production.getProduct().getId(), production.getQuantityMilli());
 
             //Fix the new product
-            Storage newStorage = storageComponent.tryGetStorageByProductId(productionDto.getProductId());
-            storageComponent.tryUpdateStorage(newStorage.getId(), newStorage.getQuantity() +  productionDto.getQuantity());
+            storageComponent.tryIncreaseStorage(productionDto.getProductId(), productionDto.getQuantityMilli());
         }
-        else if (production.getQuantity() != productionDto.getQuantity()) {
+        else if (production.getQuantityMilli() != productionDto.getQuantityMilli()) {
             //Fix quantity
-            Storage storage = storageComponent.tryGetStorageByProductId(productionDto.getProductId());
-            storageComponent.tryUpdateStorage(storage.getId(), storage.getQuantity() + (productionDto.getQuantity() - production.getQuantity()));
+            long difference = productionDto.getQuantityMilli() - production.getQuantityMilli();
+            if (difference > 0) {
+                storageComponent.tryIncreaseStorage(productionDto.getProductId(), difference);
+            }
+            else {
+                storageComponent.tryDecreaseStorage(productionDto.getProductId(), -difference);
+            }
         }
 
+        // Τα ημερήσια σύνολα: αφαιρείται η παλιά εγγραφή και προστίθεται η νέα
+        rollupComponent.recordProduction(production.getDateOfProduction(), production.getProduct().getId(), -production.getQuantityMilli());
+
         production.setDateOfProduction(productionDto.getDate());
         production.setProduct(productComponent.tryFindProduct(productionDto.getProductId()));
-        production.setQuantity(productionDto.getQuantity());
+        production.setQuantityMilli(productionDto.getQuantityMilli());
         productionRepository.save(production);
+        rollupComponent.recordProduction(production.getDateOfProduction(), production.getProduct().getId(), production.getQuantityMilli());
+        outboxComponent.record(OutboxEvent.eventType.PRODUCTION_UPDATED, production.getId(), ProductionView.of(production));
 
         log.info("Updated production successfully.");
         return production;
     }
 
     @Transactional
-    public void tryRemoveProduction(Long id) throws EntityNotFoundException, DataIntegrityViolationException {
+    public void tryRemoveProduction(Long id) throws EntityNotFoundException, StorageViolationException, DataIntegrityViolationException {
         log.info("Trying to remove production.");
 
         Production production = productionRepository.findById(id)
@@ -102,64 +136,123 @@ public class ProductionComponent {
                 });
         log.info("Production successfully retrieved.");
 
-        Storage storage = storageComponent.tryGetStorageByProductId(production.getProduct().getId());
-        storageComponent.tryUpdateStorage(storage.getId(), storage.getQuantity() - production.getQuantity());
+        storageComponent.tryDecreaseStorage(production.getProduct().getId(), production.getQuantityMilli());
+        rollupComponent.recordProduction(production.getDateOfProduction(), production.getProduct().getId(), -production.getQuantityMilli());
+        outboxComponent.record(OutboxEvent.eventType.PRODUCTION_DELETED, production.getId(), ProductionView.of(production));
 
         productionRepository.delete(production);
         log.info("Removed production successfully.");
     }
 
     @Transactional(readOnly = true)
-    public List<Production> tryGetAllProductions() {
+    public List<ProductionView> tryGetAllProductions() {
         log.info("Trying to retrieve all productions.");
 
-        List<Production> productions = productionRepository.findAll();
+        List<ProductionView> productions = productionRepository.findAllViews();
         log.info("Successfully retrieved all productions.");
 
         return productions;
     }
 
     @Transactional(readOnly = true)
-    public List<Production> tryGetProductionByProductId(Long id) throws EntityNotFoundException {
+    public List<ProductionView> tryGetProductionByProductId(Long id) throws EntityNotFoundException {
         log.info("Trying to retrieve all productions with product id " + id);
 
-        List<Production> productions = productionRepository.findAllByProductOrderByDateOfProductionDesc(productComponent.tryFindProduct(id));
+        productComponent.tryFindProduct(id);
+        List<ProductionView> productions = productionRepository.findViewsByProductId(id);
         log.info("Successfully retrieved all productions with product id " + id);
 
         return productions;
     }
 
     @Transactional(readOnly = true)
-    public List<Production> tryGetAllProductionsByDate(LocalDate date) throws EntityNotFoundException {
+    public List<ProductionView> tryGetAllProductionsByDate(LocalDate date) throws EntityNotFoundException {
         log.info("Trying to retrieve all productions with date " + date);
 
-        List<Production> productions = productionRepository.findAllByDateOfProduction(date);
+        List<ProductionView> productions = productionRepository.findViewsByDate(date);
         log.info("Successfully retrieved all productions with date " + date);
 
         return productions;
     }
 
     @Transactional(readOnly = true)
-    public Production tryGetProductionByDateAndProductId(LocalDate date, Long productId) throws EntityNotFoundException {
+    public ProductionView tryGetProductionByDateAndProductId(LocalDate date, Long productId) throws EntityNotFoundException {
         log.info("Trying to retrieve production by date and product id");
 
-        Optional<Production> production = Optional.ofNullable(productionRepository.findByDateOfProductionAndProduct(date, productComponent.tryFindProduct(productId))
+        productComponent.tryFindProduct(productId);
+        ProductionView production = productionRepository.findViewByDateAndProductId(date, productId)
                 .orElseThrow(() -> {
                     log.info("No production found with product id " + productId + "and date " + date + ".");
                     return new EntityNotFoundException("Production not found");
-                }));
+                });
 
         log.info("Production successfully retrieved.");
-        return production.get();
+        return production;
     }
 
     @Transactional(readOnly = true)
-    public List<Production> tryGetAllInDateRange(LocalDate fromDate, LocalDate toDate) {
+    public KeysetPage<ProductionView> tryGetAllInDateRange(LocalDate fromDate, LocalDate toDate, String cursor, int size) throws InvalidReportRangeException {
         log.info("Trying to retrieve all productions from date " + fromDate + " to date " + toDate);
 
-        List<Production> productions = productionRepository.findAllByDateOfProductionBetween(fromDate, toDate);
+        checkRange(fromDate, toDate);
+
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        LocalDate afterDate = null;
+        Long afterProductId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            // Μορφή cursor: "<date>:<productId>" της τελευταίας γραμμής της προηγούμενης σελίδας
+            String[] parts = cursor.split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException();
+                }
+                afterDate = LocalDate.parse(parts[0]);
+                afterProductId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                log.error("Invalid cursor {}.", cursor);
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Ζητάμε μία γραμμή παραπάνω για να ξέρουμε αν υπάρχει επόμενη σελίδα
+        List<ProductionView> productions = productionRepository.findPageBetween(fromDate, toDate, afterDate, afterProductId, Limit.of(pageSize + 1));
+        boolean hasNext = productions.size() > pageSize;
+        if (hasNext) {
+            productions = productions.subList(0, pageSize);
+        }
+
+        ProductionView last = productions.isEmpty() ? null : productions.get(productions.size() - 1);
+        String nextCursor = hasNext ? last.dateOfProduction() + ":" + last.productId() : null;
         log.info("Successfully retrieved all productions from date " + fromDate + " to date " + toDate);
 
-        return productions;
+        return new KeysetPage<>(productions, nextCursor, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductTotalView> tryGetTotalsInDateRange(LocalDate fromDate, LocalDate toDate) throws InvalidReportRangeException {
+        log.info("Trying to sum productions per product from date " + fromDate + " to date " + toDate);
+
+        checkRange(fromDate, toDate);
+        List<ProductTotalView> totals = productionRepository.sumByProductBetween(fromDate, toDate);
+        log.info("Successfully summed productions of {} products.", totals.size());
+
+        return totals;
+    }
+
+    // Μόνο η παραβίαση του uk_production_date_product σημαίνει διπλότυπο, οι υπόλοιπες (NOT NULL, foreign key, μήκος) περνούν ως έχουν
+    private static boolean isDuplicateProduction(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException violation) || violation.getConstraintName() == null) {
+            return false;
+        }
+
+        return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(DUPLICATE_CONSTRAINT);
+    }
+
+    private void checkRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            log.error("Invalid range {} - {}.", fromDate, toDate);
+            throw new InvalidReportRangeException("The start date must not be after the end date.");
+        }
     }
 }
@@ -0,0 +1,70 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.SalesReportRow;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleReportRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportComponent {
+
+    private final SaleRepository saleRepository;
+
+    @Transactional(readOnly = true)
+    public List<SalesReportRow> tryBuildSalesReport(LocalDate fromDate, LocalDate toDate,
+                                                    SaleReportRepository.dimensionType groupBy,
+                                                    SaleReportRepository.periodType period) throws InvalidReportRangeException {
+        log.info("Trying to build sales report from {} to {} by {} per {}.", fromDate, toDate, groupBy, period);
+
+        if (fromDate.isAfter(toDate)) {
+            log.error("Invalid report range {} - {}.", fromDate, toDate);
+            throw new InvalidReportRangeException("The start date must not be after the end date.");
+        }
+
+        List<SalesReportRow> report;
+        if (period == SaleReportRepository.periodType.WEEK) {
+            // Οι εβδομάδες (Δευτέρα - Κυριακή) δεν ορίζονται ίδια σε MySQL και H2,
+            // οπότε ομαδοποιούμε ανά ημέρα στη βάση και ενώνουμε τις ημέρες εδώ
+            report = foldIntoWeeks(saleRepository.aggregateSales(fromDate, toDate, groupBy, SaleReportRepository.periodType.DAY));
+        }
+        else {
+            report = saleRepository.aggregateSales(fromDate, toDate, groupBy, period);
+        }
+
+        log.info("Successfully built sales report with {} rows.", report.size());
+        return report;
+    }
+
+    private List<SalesReportRow> foldIntoWeeks(List<SalesReportRow> dailyRows) {
+        record WeekKey(LocalDate weekStart, Long groupId, String groupLabel) {
+        }
+
+        Map<WeekKey, SalesReportRow> weeks = new LinkedHashMap<>();
+        for (SalesReportRow day : dailyRows) {
+            WeekKey key = new WeekKey(day.periodStart().with(DayOfWeek.MONDAY), day.groupId(), day.groupLabel());
+            weeks.merge(key,
+                    new SalesReportRow(key.weekStart(), day.groupId(), day.groupLabel(), day.revenue(), day.quantity(), day.saleCount()),
+                    (a, b) -> new SalesReportRow(a.periodStart(), a.groupId(), a.groupLabel(),
+                            a.revenue().add(b.revenue()), a.quantity().add(b.quantity()), a.saleCount() + b.saleCount()));
+        }
+
+        List<SalesReportRow> report = new ArrayList<>(weeks.values());
+        report.sort(Comparator.comparing(SalesReportRow::periodStart)
+                .thenComparing(SalesReportRow::groupLabel, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return report;
+    }
+}
@@ -0,0 +1,141 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationView;
+import gr.ckaraiskos.candlefactory.candle.entity.Customer;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Reservation;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
+import gr.ckaraiskos.candlefactory.candle.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationComponent {
+
+    private final ReservationRepository reservationRepository;
+    private final ProductComponent productComponent;
+    private final CustomerComponent customerComponent;
+    private final StorageComponent storageComponent;
+    private final SaleComponent saleComponent;
+
+    @Value("${candle.reservation.default-ttl-minutes:15}")
+    private int defaultTtlMinutes;
+
+    @Value("${candle.reservation.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Transactional
+    public Reservation tryReserve(ReservationDto reservationDto) throws EntityNotFoundException, StorageViolationException {
+        log.info("Trying to add reservation.");
+
+        Product product = productComponent.tryFindProduct(reservationDto.getProductId());
+        Customer customer = customerComponent.tryFindCustomer(reservationDto.getCustomerId());
+
+        log.info("Reserving stock.");
+        storageComponent.tryReserveStock(product.getId(), reservationDto.getQuantityMilli());
+
+        LocalDateTime now = LocalDateTime.now();
+        int ttlMinutes = reservationDto.getTtlMinutes() != null ? reservationDto.getTtlMinutes() : defaultTtlMinutes;
+        Reservation reservation = Reservation.builder()
+                .customer(customer)
+                .product(product)
+                .quantityMilli(reservationDto.getQuantityMilli())
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(ttlMinutes))
+                .build();
+
+        log.info("Saving reservation.");
+        reservationRepository.save(reservation);
+
+        log.info("Reservation added successfully, expires at {}.", reservation.getExpiresAt());
+        return reservation;
+    }
+
+    @Transactional
+    public Sale tryConfirmReservation(Long reservationId, LocalDate date, BigDecimal totalCost) throws EntityNotFoundException {
+        log.info("Trying to confirm reservation with id {}.", reservationId);
+
+        Reservation reservation = tryFindReservation(reservationId);
+
+        // Μόνο όποιος σβήσει τη γραμμή κρατάει το απόθεμα, ώστε το sweep να μην το αποδεσμεύσει ταυτόχρονα
+        if (reservationRepository.deleteIfOpen(reservationId, LocalDateTime.now()) == 0) {
+            log.error("Reservation with id {} has expired.", reservationId);
+            throw new EntityNotFoundException("Reservation with id:" + reservationId + " has expired.");
+        }
+
+        Sale sale = saleComponent.tryAddReservedSale(reservation, date != null ? date : LocalDate.now(), totalCost);
+
+        log.info("Reservation confirmed successfully.");
+        return sale;
+    }
+
+    @Transactional
+    public void tryReleaseReservation(Long reservationId) throws EntityNotFoundException {
+        log.info("Trying to release reservation with id {}.", reservationId);
+
+        Reservation reservation = tryFindReservation(reservationId);
+        if (reservationRepository.deleteIfPresent(reservationId) == 0) {
+            log.error("Reservation with id {} not found.", reservationId);
+            throw new EntityNotFoundException("Reservation with id:" + reservationId + " not found.");
+        }
+        storageComponent.releaseReservedStock(reservation.getProduct().getId(), reservation.getQuantityMilli());
+
+        log.info("Reservation released successfully.");
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationView> tryGetAllReservations() {
+        log.info("Trying to retrieve all reservations.");
+
+        List<ReservationView> reservations = reservationRepository.findAllViews();
+
+        log.info("Successfully retrieved all reservations.");
+        return reservations;
+    }
+
+    @Scheduled(fixedDelayString = "${candle.reservation.sweep-interval-ms:10000}")
+    @Transactional
+    public void sweepExpiredReservations() {
+        List<ReservationRepository.HeldQuantity> expired = reservationRepository.findExpired(LocalDateTime.now(), Limit.of(sweepBatchSize));
+
+        while (!expired.isEmpty()) {
+            int released = 0;
+            for (ReservationRepository.HeldQuantity reservation : expired) {
+                // Αν η επιβεβαίωση πρόλαβε να τη σβήσει, το απόθεμα έχει ήδη γίνει πώληση
+                if (reservationRepository.deleteIfPresent(reservation.getId()) == 1) {
+                    storageComponent.releaseReservedStock(reservation.getProductId(), reservation.getQuantityMilli());
+                    released++;
+                }
+            }
+            log.info("Released {} expired reservations.", released);
+
+            if (expired.size() < sweepBatchSize) {
+                return;
+            }
+            expired = reservationRepository.findExpired(LocalDateTime.now(), Limit.of(sweepBatchSize));
+        }
+    }
+
+    private Reservation tryFindReservation(Long reservationId) throws EntityNotFoundException {
+        return reservationRepository.findById(reservationId)
+                .orElseThrow(() -> {
+                    log.error("Reservation with id {} not found.", reservationId);
+                    return new EntityNotFoundException("Reservation with id:" + reservationId + " not found.");
+                });
+    }
+}
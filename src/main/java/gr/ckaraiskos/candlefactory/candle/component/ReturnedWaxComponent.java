@@ -0,0 +1,156 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxBatchResultDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxView;
+import gr.ckaraiskos.candlefactory.candle.entity.Customer;
+import gr.ckaraiskos.candlefactory.candle.entity.DebtEntry;
+import gr.ckaraiskos.candlefactory.candle.entity.ReturnedWax;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.repository.ReturnedWaxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReturnedWaxComponent {
+
+    private final ReturnedWaxRepository returnedWaxRepository;
+    private final CustomerComponent customerComponent;
+    private final WaxPriceComponent waxPriceComponent;
+
+    @Transactional
+    public ReturnedWax tryAddReturnedWax(ReturnedWaxDto returnedWaxDto) throws EntityNotFoundException {
+        log.info("Trying to add returned wax.");
+
+        Customer customer = customerComponent.tryFindCustomer(returnedWaxDto.getCustomerId());
+        ReturnedWax returnedWax = buildReturnedWax(returnedWaxDto, customer);
+
+        log.info("Saving returned wax.");
+        returnedWaxRepository.save(returnedWax);
+
+        // Η πίστωση γράφεται στην ίδια συναλλαγή, ώστε να μην υπάρχει επιστροφή χωρίς πίστωση
+        customerComponent.modifyDebt(returnedWax.getTotalValue().negate(), customer.getId(), DebtEntry.entryType.RETURN);
+
+        log.info("Returned wax added successfully, credited {}.", returnedWax.getTotalValue());
+        return returnedWax;
+    }
+
+    @Transactional
+    public List<ReturnedWaxBatchResultDto> tryAddReturnedWaxBatch(List<ReturnedWaxDto> returnedWaxDtos) {
+        log.info("Trying to add batch of {} returned wax.", returnedWaxDtos.size());
+
+        // Ένα IN query για όλους τους πελάτες της ζύγισης
+        Set<Long> customerIds = returnedWaxDtos.stream().map(ReturnedWaxDto::getCustomerId).collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerComponent.tryFindCustomers(customerIds);
+
+        Map<Long, BigDecimal> credits = new LinkedHashMap<>();
+        List<ReturnedWax> newReturns = new ArrayList<>();
+        ReturnedWaxBatchResultDto[] results = new ReturnedWaxBatchResultDto[returnedWaxDtos.size()];
+
+        for (int line = 0; line < returnedWaxDtos.size(); line++) {
+            ReturnedWaxDto returnedWaxDto = returnedWaxDtos.get(line);
+            Customer customer = customers.get(returnedWaxDto.getCustomerId());
+
+            if (customer == null) {
+                results[line] = ReturnedWaxBatchResultDto.failed(line, "Customer with id:" + returnedWaxDto.getCustomerId() + " not found.");
+                continue;
+            }
+
+            ReturnedWax returnedWax;
+            try {
+                returnedWax = buildReturnedWax(returnedWaxDto, customer);
+            } catch (EntityNotFoundException e) {
+                results[line] = ReturnedWaxBatchResultDto.failed(line, e.getMessage());
+                continue;
+            }
+            newReturns.add(returnedWax);
+
+            credits.merge(customer.getId(), returnedWax.getTotalValue(), BigDecimal::add);
+            results[line] = new ReturnedWaxBatchResultDto(line, true, null, returnedWax.getTotalValue(), null);
+        }
+
+        log.info("Saving {} returned wax.", newReturns.size());
+        returnedWaxRepository.saveAll(newReturns);
+
+        // Μία πίστωση ανά πελάτη για όλη τη ζύγιση
+        log.info("Crediting {} customers.", credits.size());
+        credits.forEach((customerId, amount) -> customerComponent.modifyDebt(amount.negate(), customerId, DebtEntry.entryType.RETURN));
+
+        Iterator<ReturnedWax> savedReturns = newReturns.iterator();
+        for (ReturnedWaxBatchResultDto result : results) {
+            if (result.isSuccess()) {
+                result.setReturnedWaxId(savedReturns.next().getId());
+            }
+        }
+
+        log.info("Batch added {} of {} returned wax successfully.", newReturns.size(), returnedWaxDtos.size());
+        return Arrays.asList(results);
+    }
+
+    @Transactional
+    public void tryDeleteReturnedWax(Long returnedWaxId) throws EntityNotFoundException {
+        log.info("Trying to delete returned wax.");
+
+        ReturnedWax returnedWax = returnedWaxRepository.findById(returnedWaxId)
+                .orElseThrow(() -> {
+                    log.error("Returned wax with id {} not found.", returnedWaxId);
+                    return new EntityNotFoundException("Returned wax with id:" + returnedWaxId + " not found.");
+                });
+
+        // Αναιρούμε την πίστωση του πελάτη
+        customerComponent.modifyDebt(returnedWax.getTotalValue(), returnedWax.getCustomer().getId(), DebtEntry.entryType.RETURN_REVERSAL);
+
+        log.info("Deleting returned wax.");
+        returnedWaxRepository.delete(returnedWax);
+        log.info("Returned wax deleted successfully.");
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReturnedWaxView> tryGetReturnedWaxByCustomer(Long customerId, LocalDate fromDate, LocalDate toDate)
+            throws EntityNotFoundException, InvalidReportRangeException {
+        log.info("Trying to retrieve returned wax of customer with id {} from {} to {}.", customerId, fromDate, toDate);
+
+        if (fromDate.isAfter(toDate)) {
+            log.error("Invalid range, {} is after {}.", fromDate, toDate);
+            throw new InvalidReportRangeException("The start date must not be after the end date.");
+        }
+        customerComponent.tryFindCustomer(customerId);
+
+        List<ReturnedWaxView> returns = returnedWaxRepository.findViewsByCustomerAndDateRange(customerId, fromDate, toDate);
+
+        log.info("Successfully retrieved {} returned wax.", returns.size());
+        return returns;
+    }
+
+    private ReturnedWax buildReturnedWax(ReturnedWaxDto returnedWaxDto, Customer customer) throws EntityNotFoundException {
+        // Από το snapshot στη μνήμη, χωρίς query ανά γραμμή
+        WaxPriceComponent.Rate rate = waxPriceComponent.tryFindRate(returnedWaxDto.getMaterial(), returnedWaxDto.getReturnDate());
+
+        ReturnedWax returnedWax = ReturnedWax.builder()
+                .returnDate(returnedWaxDto.getReturnDate())
+                .customer(customer)
+                .material(returnedWaxDto.getMaterial())
+                .weightMilli(returnedWaxDto.getWeightMilli())
+                .note(returnedWaxDto.getNote())
+                .build();
+        returnedWax.setTotalValue(returnedWax.calculateValue(rate.price(), rate.retentionRate()));
+
+        return returnedWax;
+    }
+}
@@ -0,0 +1,163 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.DailyRollupView;
+import gr.ckaraiskos.candlefactory.candle.entity.DailyProductRollup;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.repository.DailyProductRollupRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the daily_product_rollup rows in step with sales and production.
+ * The record* methods join the caller's transaction, so a rolled back sale also rolls back its totals.
+ * Callers must run through ConflictRetryExecutor, which repeats the operation when two requests create the same row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupComponent {
+
+    private final DailyProductRollupRepository rollupRepository;
+    private final ProductRepository productRepository;
+
+    private record DayProduct(LocalDate date, Long productId) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSale(Sale sale) {
+        apply(sale.getDate(), sale.getProductType().getId(), sale.getQuantityMilli(), sale.getCost(), 1, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revertSale(Sale sale) {
+        apply(sale.getDate(), sale.getProductType().getId(), -sale.getQuantityMilli(), sale.getCost().negate(), -1, 0);
+    }
+
+    /**
+     * Applies the difference of a sale edited in place, when its date and product stay the same.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustSale(LocalDate date, Long productId, long quantityMilliDelta, BigDecimal revenueDelta) {
+        apply(date, productId, quantityMilliDelta, revenueDelta, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSales(Collection<Sale> sales) {
+        // Μία ενημέρωση ανά (ημέρα, προϊόν) για όλη τη δέσμη
+        Map<DayProduct, long[]> quantities = new LinkedHashMap<>();
+        Map<DayProduct, BigDecimal> revenues = new LinkedHashMap<>();
+        for (Sale sale : sales) {
+            DayProduct key = new DayProduct(sale.getDate(), sale.getProductType().getId());
+            long[] totals = quantities.computeIfAbsent(key, k -> new long[2]);
+            totals[0] += sale.getQuantityMilli();
+            totals[1] += 1;
+            revenues.merge(key, sale.getCost(), BigDecimal::add);
+        }
+
+        quantities.forEach((key, totals) ->
+                apply(key.date(), key.productId(), totals[0], revenues.get(key), totals[1], 0));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProduction(LocalDate date, Long productId, long quantityMilli) {
+        apply(date, productId, 0, BigDecimal.ZERO, 0, quantityMilli);
+    }
+
+    private void apply(LocalDate date, Long productId, long soldQuantityMilli, BigDecimal revenue, long saleCount, long producedQuantityMilli) {
+        // Στρογγυλοποίηση όπως αποθηκεύεται το Sale.cost, ώστε το rebuild να δίνει το ίδιο άθροισμα
+        BigDecimal roundedRevenue = revenue.setScale(2, RoundingMode.HALF_UP);
+
+        // Απλό SELECT χωρίς κλείδωμα, ώστε να μην κρατάμε gap lock στο unique index πριν το INSERT
+        if (rollupRepository.existsByDateAndProduct_Id(date, productId)) {
+            int updated = rollupRepository.addToRollup(date, productId, soldQuantityMilli, roundedRevenue, saleCount, producedQuantityMilli);
+            if (updated == 0) {
+                throw new OptimisticLockingFailureException("Rollup row for product " + productId + " on " + date + " was removed concurrently.");
+            }
+            return;
+        }
+
+        try {
+            rollupRepository.saveAndFlush(DailyProductRollup.builder()
+                    .date(date)
+                    .product(productRepository.getReferenceById(productId))
+                    .soldQuantityMilli(soldQuantityMilli)
+                    .revenue(roundedRevenue)
+                    .saleCount(saleCount)
+                    .producedQuantityMilli(producedQuantityMilli)
+                    .build());
+            log.info("Created rollup row for product {} on {}.", productId, date);
+        } catch (DataIntegrityViolationException e) {
+            // Άλλο αίτημα δημιούργησε ταυτόχρονα την ίδια γραμμή: η συναλλαγή αναιρείται και το ConflictRetryExecutor
+            // την ξανατρέχει, οπότε η δεύτερη προσπάθεια βρίσκει τη γραμμή και κάνει UPDATE
+            log.warn("Rollup row for product {} on {} was created concurrently.", productId, date);
+            throw new OptimisticLockingFailureException("Rollup row for product " + productId + " on " + date + " was created concurrently.", e);
+        }
+    }
+
+    @Transactional
+    public int tryRebuild(LocalDate fromDate, LocalDate toDate) throws InvalidReportRangeException {
+        log.info("Trying to rebuild daily rollups from {} to {}.", fromDate, toDate);
+
+        if (fromDate.isAfter(toDate)) {
+            log.error("Invalid rebuild range {} - {}.", fromDate, toDate);
+            throw new InvalidReportRangeException("The start date must not be after the end date.");
+        }
+
+        int deleted = rollupRepository.deleteBetween(fromDate, toDate);
+        log.info("Deleted {} rollup rows.", deleted);
+
+        Map<DayProduct, DailyProductRollup> rows = new LinkedHashMap<>();
+        for (DailyProductRollupRepository.SaleTotals totals : rollupRepository.sumSalesByDay(fromDate, toDate)) {
+            DailyProductRollup row = rows.computeIfAbsent(new DayProduct(totals.getDate(), totals.getProductId()), this::emptyRow);
+            row.setSoldQuantityMilli(totals.getQuantityMilli());
+            row.setRevenue(totals.getRevenue());
+            row.setSaleCount(totals.getSaleCount());
+        }
+        for (DailyProductRollupRepository.ProductionTotals totals : rollupRepository.sumProductionByDay(fromDate, toDate)) {
+            DailyProductRollup row = rows.computeIfAbsent(new DayProduct(totals.getDate(), totals.getProductId()), this::emptyRow);
+            row.setProducedQuantityMilli(totals.getQuantityMilli());
+        }
+
+        rollupRepository.saveAll(rows.values());
+
+        log.info("Successfully rebuilt {} rollup rows.", rows.size());
+        return rows.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyRollupView> tryGetRollups(LocalDate fromDate, LocalDate toDate, Long productId) throws InvalidReportRangeException {
+        log.info("Trying to retrieve daily rollups from {} to {}.", fromDate, toDate);
+
+        if (fromDate.isAfter(toDate)) {
+            log.error("Invalid rollup range {} - {}.", fromDate, toDate);
+            throw new InvalidReportRangeException("The start date must not be after the end date.");
+        }
+
+        List<DailyRollupView> rollups = rollupRepository.findViewsBetween(fromDate, toDate, productId);
+        log.info("Successfully retrieved {} daily rollups.", rollups.size());
+
+        return rollups;
+    }
+
+    private DailyProductRollup emptyRow(DayProduct key) {
+        return DailyProductRollup.builder()
+                .date(key.date())
+                .product(productRepository.getReferenceById(key.productId()))
+                .build();
+    }
+}
@@ -1,24 +1,47 @@
 package gr.ckaraiskos.candlefactory.candle.component;
 
+import gr.ckaraiskos.candlefactory.candle.dto.KeysetPage;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleBatchResultDto;
 import gr.ckaraiskos.candlefactory.candle.dto.SaleDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleSearchDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleView;
 import gr.ckaraiskos.candlefactory.candle.entity.Customer;
+import gr.ckaraiskos.candlefactory.candle.entity.DebtEntry;
+import gr.ckaraiskos.candlefactory.candle.entity.OutboxEvent;
 import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import gr.ckaraiskos.candlefactory.candle.entity.Reservation;
 import gr.ckaraiskos.candlefactory.candle.entity.Sale;
-import gr.ckaraiskos.candlefactory.candle.entity.Storage;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidCursorException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
 import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
 import gr.ckaraiskos.candlefactory.candle.repository.SaleRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,6 +52,12 @@ public class SaleComponent {
     private final ProductComponent productComponent;
     private final StorageComponent storageComponent;
     private final CustomerComponent customerComponent;
+    private final RollupComponent rollupComponent;
+    private final JsonMapper jsonMapper;
+    private final OutboxComponent outboxComponent;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_EVERY = 500;
 
     @Transactional
     public Sale tryAddSale(SaleDto saleDto) throws EntityAlreadyExistsException, EntityNotFoundException, StorageViolationException {
@@ -36,42 +65,117 @@ public class SaleComponent {
 
         Product product = productComponent.tryFindProduct(saleDto.getProductId());
         Customer customer = customerComponent.tryFindCustomer(saleDto.getCustomerId());
-        Storage storage = storageComponent.tryGetStorageByProductId(saleDto.getProductId());
 
-        if(saleDto.getQuantity() > storage.getQuantity()) {
-            log.info("Quantity is greater than the storage quantity.");
-            throw new StorageViolationException("Quantity is greater than the storage quantity.");
-        }
+        // Ο έλεγχος και η αφαίρεση γίνονται μαζί στο StockEngine, ώστε δύο ταυτόχρονες πωλήσεις να μην περνάνε και οι δύο
+        log.info("Updating Storage.");
+        storageComponent.tryDecreaseStorage(product.getId(), saleDto.getQuantityMilli());
 
-        Sale newSale = Sale.builder()
-                .date(saleDto.getDate())
-                .customer(customer)
-                .productType(product)
-                .quantity(saleDto.getQuantity())
-                .build();
+        Sale newSale = saveSale(product, customer, saleDto.getDate(), saleDto.getQuantityMilli(), saleDto.getTotalCost());
 
-        log.info("Calculating cost.");
-        if (saleDto.getTotalCost() != null) {
-            newSale.setCost(saleDto.getTotalCost());
-        }
-        else {
-            BigDecimal cost = calculateCost(product.getPrice(), newSale.getQuantity());
-            newSale.setCost(cost);
-        }
+        log.info("Sale added successfully.");
+        return newSale;
+    }
 
-        log.info("Updating debt.");
-        customerComponent.modifyDebt(newSale.getCost(), customer.getId());
+    @Transactional
+    public Sale tryAddReservedSale(Reservation reservation, LocalDate date, BigDecimal totalCost) throws EntityNotFoundException {
+        log.info("Trying to add sale of reservation with id {}.", reservation.getId());
 
+        Product product = productComponent.tryFindProduct(reservation.getProduct().getId());
+        Customer customer = customerComponent.tryFindCustomer(reservation.getCustomer().getId());
+
+        // Το απόθεμα κρατήθηκε ήδη με την κράτηση, δεν ξαναελέγχεται
         log.info("Updating Storage.");
-        storageComponent.tryUpdateStorage(storage.getId(), storage.getQuantity() - saleDto.getQuantity());
+        storageComponent.consumeReservedStock(product.getId(), reservation.getQuantityMilli());
 
-        log.info("Saving sale.");
-        saleRepository.save(newSale);
+        Sale newSale = saveSale(product, customer, date, reservation.getQuantityMilli(), totalCost);
 
-        log.info("Sale added successfully.");
+        log.info("Sale of reservation added successfully.");
         return newSale;
     }
 
+    @Transactional
+    public List<SaleBatchResultDto> tryAddSalesBatch(List<SaleDto> saleDtos) throws StorageViolationException {
+        log.info("Trying to add batch of {} sales.", saleDtos.size());
+
+        Set<Long> productIds = saleDtos.stream().map(SaleDto::getProductId).collect(Collectors.toSet());
+        Set<Long> customerIds = saleDtos.stream().map(SaleDto::getCustomerId).collect(Collectors.toSet());
+
+        // Ένα IN query για κάθε πίνακα, αντί για τρία lookups ανά γραμμή
+        Map<Long, Product> products = productComponent.tryFindProducts(productIds);
+        Map<Long, Customer> customers = customerComponent.tryFindCustomers(customerIds);
+        Map<Long, Long> available = storageComponent.tryGetAvailableQuantities(productIds);
+
+        Map<Long, Long> stockDeltas = new LinkedHashMap<>();
+        Map<Long, BigDecimal> debtDeltas = new LinkedHashMap<>();
+        List<Sale> newSales = new ArrayList<>();
+        SaleBatchResultDto[] results = new SaleBatchResultDto[saleDtos.size()];
+
+        for (int line = 0; line < saleDtos.size(); line++) {
+            SaleDto saleDto = saleDtos.get(line);
+            Product product = products.get(saleDto.getProductId());
+            Customer customer = customers.get(saleDto.getCustomerId());
+
+            if (product == null) {
+                results[line] = SaleBatchResultDto.failed(line, "Product with id:" + saleDto.getProductId() + " not found.");
+                continue;
+            }
+            if (customer == null) {
+                results[line] = SaleBatchResultDto.failed(line, "Customer with id:" + saleDto.getCustomerId() + " not found.");
+                continue;
+            }
+            if (!available.containsKey(product.getId())) {
+                results[line] = SaleBatchResultDto.failed(line, "Storage not found.");
+                continue;
+            }
+
+            // Οι γραμμές του ίδιου προϊόντος μοιράζονται το ίδιο απόθεμα, με τη σειρά που ήρθαν
+            long remaining = available.get(product.getId());
+            if (saleDto.getQuantityMilli() > remaining) {
+                results[line] = SaleBatchResultDto.failed(line, "Quantity is greater than the storage quantity.");
+                continue;
+            }
+            available.put(product.getId(), remaining - saleDto.getQuantityMilli());
+
+            BigDecimal cost = saleDto.getTotalCost() != null
+                    ? saleDto.getTotalCost()
+                    : calculateCost(product.getPrice(), saleDto.getQuantityMilli());
+
+            Sale newSale = Sale.builder()
+                    .date(saleDto.getDate())
+                    .customer(customer)
+                    .productType(product)
+                    .quantityMilli(saleDto.getQuantityMilli())
+                    .cost(cost)
+                    .build();
+            newSales.add(newSale);
+
+            stockDeltas.merge(product.getId(), saleDto.getQuantityMilli(), Long::sum);
+            debtDeltas.merge(customer.getId(), cost, BigDecimal::add);
+            results[line] = new SaleBatchResultDto(line, true, null, cost, null);
+        }
+
+        log.info("Updating storage of {} products.", stockDeltas.size());
+        stockDeltas.forEach(storageComponent::tryDecreaseStorage);
+
+        log.info("Updating debt of {} customers.", debtDeltas.size());
+        debtDeltas.forEach((customerId, amount) -> customerComponent.modifyDebt(amount, customerId, DebtEntry.entryType.SALE));
+
+        log.info("Saving {} sales.", newSales.size());
+        saleRepository.saveAll(newSales);
+        rollupComponent.recordSales(newSales);
+        newSales.forEach(sale -> outboxComponent.record(OutboxEvent.eventType.SALE_CREATED, sale.getId(), SaleView.of(sale)));
+
+        Iterator<Sale> savedSales = newSales.iterator();
+        for (SaleBatchResultDto result : results) {
+            if (result.isSuccess()) {
+                result.setSaleId(savedSales.next().getId());
+            }
+        }
+
+        log.info("Batch added {} of {} sales successfully.", newSales.size(), saleDtos.size());
+        return Arrays.asList(results);
+    }
+
     @Transactional
     public Sale tryUpdateSale(SaleDto saleDto) throws EntityNotFoundException, StorageViolationException {
         log.info("Trying to update sale.");
@@ -83,15 +187,7 @@ public class SaleComponent {
                 });
         log.info("Successfully retrieved sale.");
 
-        // Επιστρέφουμε τα λεφτά στον παλιό πελάτη (μείωση χρέους)
-        // Προσοχή: Χρησιμοποιούμε negate() για να αφαιρέσουμε το ποσό που είχε χρεωθεί
-        customerComponent.modifyDebt(sale.getCost().negate(), sale.getCustomer().getId());
-
-        // Επιστρέφουμε το εμπόρευμα στην αποθήκη
-        Storage oldStorage = storageComponent.tryGetStorageByProductId(sale.getProductType().getId());
-        storageComponent.tryUpdateStorage(oldStorage.getId(), oldStorage.getQuantity() + sale.getQuantity());
-
-        // --- ΕΝΗΜΕΡΩΣΗ ΑΝΤΙΚΕΙΜΕΝΟΥ ---
+        // Από την cache, χωρίς query όταν πελάτης και προϊόν δεν αλλάζουν
         Customer newCustomer = customerComponent.tryFindCustomer(saleDto.getCustomerId());
         Product newProduct = productComponent.tryFindProduct(saleDto.getProductId());
 
@@ -100,37 +196,81 @@ public class SaleComponent {
         if (saleDto.getTotalCost() != null) {
             finalCost = saleDto.getTotalCost();
         } else {
-            finalCost = calculateCost(newProduct.getPrice(), saleDto.getQuantity());
+            finalCost = calculateCost(newProduct.getPrice(), saleDto.getQuantityMilli());
         }
 
+        SaleChange change = SaleChange.between(sale, newCustomer.getId(), newProduct.getId(), saleDto.getDate(),
+                saleDto.getQuantityMilli(), finalCost);
+
+        // Αφαιρούμε την παλιά εικόνα από τα ημερήσια σύνολα πριν αλλάξει το αντικείμενο, αν αλλάζει γραμμή
+        if (change.movesRollup()) {
+            rollupComponent.revertSale(sale);
+        }
+
+        // Πρώτα όσα επιστρέφουν στην αποθήκη και μετά όσα βγαίνουν, μία κίνηση ανά προϊόν
+        for (Map.Entry<Long, Long> stock : change.stockDeltas().entrySet()) {
+            if (stock.getValue() < 0) {
+                storageComponent.tryIncreaseStorage(stock.getKey(), -stock.getValue());
+            }
+        }
+        for (Map.Entry<Long, Long> stock : change.stockDeltas().entrySet()) {
+            if (stock.getValue() > 0) {
+                storageComponent.tryDecreaseStorage(stock.getKey(), stock.getValue());
+            }
+        }
+
+        // Μία εγγραφή στο ledger ανά πελάτη, με την καθαρή διαφορά
+        change.debtDeltas().forEach((customerId, amount) -> customerComponent.modifyDebt(amount, customerId,
+                amount.signum() > 0 ? DebtEntry.entryType.SALE : DebtEntry.entryType.SALE_REVERSAL));
+
         sale.setDate(saleDto.getDate());
         sale.setCustomer(newCustomer);
         sale.setProductType(newProduct);
-        sale.setQuantity(saleDto.getQuantity()); // Διόρθωση: saleDto.Quantity
-        sale.setCost(finalCost); // Διόρθωση: finalCost (όχι null)
+        sale.setQuantityMilli(saleDto.getQuantityMilli());
+        sale.setCost(finalCost);
 
-        // Χρεώνουμε τον νέο πελάτη (μπορεί να είναι ο ίδιος, δεν πειράζει)
-        customerComponent.modifyDebt(finalCost, newCustomer.getId());
+        saleRepository.save(sale);
+        if (change.movesRollup()) {
+            rollupComponent.recordSale(sale);
+        } else if (change.rollupQuantityMilli() != 0 || change.rollupRevenue().signum() != 0) {
+            rollupComponent.adjustSale(sale.getDate(), newProduct.getId(), change.rollupQuantityMilli(), change.rollupRevenue());
+        }
+        outboxComponent.record(OutboxEvent.eventType.SALE_UPDATED, sale.getId(), SaleView.of(sale));
 
-        // Αφαιρούμε το εμπόρευμα από τη νέα αποθήκη (μείωση στοκ)
-        // Προσοχή: Αν το προϊόν είναι ίδιο, το oldStorage έχει ήδη ενημερωθεί στην αρχική κατάσταση,
-        // οπότε τραβάμε φρέσκα δεδομένα για σιγουριά.
-        Storage targetStorage = storageComponent.tryGetStorageByProductId(newProduct.getId());
+        log.info("Sale updated successfully with {} stock and {} debt changes.", change.stockDeltas().size(), change.debtDeltas().size());
+        return sale;
+    }
 
-        // Ελέγχουμε αν η διαθέσιμη ποσότητα (που περιλαμβάνει και την επιστροφή αν είναι ίδιο προϊόν)
-        // επαρκεί για τη νέα ζήτηση.
-        if (targetStorage.getQuantity() < saleDto.getQuantity()) {
-            log.error("Insufficient stock. Available: {}, Requested: {}", targetStorage.getQuantity(), saleDto.getQuantity());
-            throw new StorageViolationException("Insufficient stock for product: " + newProduct.getProductCode());
-        }
+    /**
+     * The net effect of editing a sale: one stock delta per product and one debt delta per customer, zero deltas left out
+     * (positive stock delta = taken from the storage, positive debt delta = charged).
+     * A date-only edit, or an edit that gives the same cost, leaves both maps empty and only the Sale row changes.
+     */
+    private record SaleChange(Map<Long, Long> stockDeltas, Map<Long, BigDecimal> debtDeltas, boolean movesRollup,
+                              long rollupQuantityMilli, BigDecimal rollupRevenue) {
 
-        storageComponent.tryUpdateStorage(targetStorage.getId(), targetStorage.getQuantity() - saleDto.getQuantity());
+        static SaleChange between(Sale sale, Long newCustomerId, Long newProductId, LocalDate newDate, long newQuantityMilli, BigDecimal newCost) {
+            Long oldProductId = sale.getProductType().getId();
 
-        // 5. Αποθήκευση
-        saleRepository.save(sale);
+            Map<Long, Long> stockDeltas = new LinkedHashMap<>();
+            stockDeltas.merge(oldProductId, -sale.getQuantityMilli(), Long::sum);
+            stockDeltas.merge(newProductId, newQuantityMilli, Long::sum);
+            stockDeltas.values().removeIf(delta -> delta == 0);
 
-        log.info("Sale updated successfully.");
-        return sale;
+            // Στρογγυλοποίηση όπως αποθηκεύεται το Sale.cost, ώστε η διαφορά να είναι ακριβώς αυτή που θα γραφτεί
+            BigDecimal oldCost = sale.getCost().setScale(2, RoundingMode.HALF_UP);
+            BigDecimal roundedNewCost = newCost.setScale(2, RoundingMode.HALF_UP);
+
+            Map<Long, BigDecimal> debtDeltas = new LinkedHashMap<>();
+            debtDeltas.merge(sale.getCustomer().getId(), oldCost.negate(), BigDecimal::add);
+            debtDeltas.merge(newCustomerId, roundedNewCost, BigDecimal::add);
+            debtDeltas.values().removeIf(delta -> delta.signum() == 0);
+
+            boolean movesRollup = !oldProductId.equals(newProductId) || !sale.getDate().equals(newDate);
+
+            return new SaleChange(stockDeltas, debtDeltas, movesRollup,
+                    newQuantityMilli - sale.getQuantityMilli(), roundedNewCost.subtract(oldCost));
+        }
     }
 
     @Transactional
@@ -146,108 +286,254 @@ public class SaleComponent {
 
         // Επιστρέφουμε τα λεφτά στον παλιό πελάτη (μείωση χρέους)
         // Προσοχή: Χρησιμοποιούμε negate() για να αφαιρέσουμε το ποσό που είχε χρεωθεί
-        customerComponent.modifyDebt(sale.getCost().negate(), sale.getCustomer().getId());
+        customerComponent.modifyDebt(sale.getCost().negate(), sale.getCustomer().getId(), DebtEntry.entryType.SALE_REVERSAL);
 
         // Επιστρέφουμε το εμπόρευμα στην αποθήκη
-        Storage oldStorage = storageComponent.tryGetStorageByProductId(sale.getProductType().getId());
-        storageComponent.tryUpdateStorage(oldStorage.getId(), oldStorage.getQuantity() + sale.getQuantity());
-        log.info("Reverted changes in customer and storage.");
+        storageComponent.tryIncreaseStorage(sale.getProductType().getId(), sale.getQuantityMilli());
+        rollupComponent.revertSale(sale);
+        log.info("Reverted changes in customer, storage and daily totals.");
 
         log.info("Deleting sale.");
+        outboxComponent.record(OutboxEvent.eventType.SALE_DELETED, sale.getId(), SaleView.of(sale));
         saleRepository.delete(sale);
         log.info("Sale deleted successfully.");
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSales() {
+    public KeysetPage<SaleView> tryGetAllSales(String cursor, int size) {
         log.info("Trying to retrieve all sales.");
 
-        List<Sale> sales = saleRepository.findAll();
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(null).productId(null).fromDate(null).toDate(null).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSalesByCustomerId(Long customerId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetAllSalesByCustomerId(Long customerId, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by customer id.");
 
-        Customer customer = customerComponent.tryFindCustomer(customerId);
-        List<Sale> sales = saleRepository.findAllByCustomerOrderByDate(customer);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(customerId).productId(null).fromDate(null).toDate(null).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by customer id.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSalesByProductId(Long productId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetAllSalesByProductId(Long productId, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by product id.");
 
-        Product product = productComponent.tryFindProduct(productId);
-        List<Sale> sales = saleRepository.findAllByProductTypeOrderByDate(product);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(null).productId(productId).fromDate(null).toDate(null).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by product id.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSalesByDate(LocalDate date) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetAllSalesByDate(LocalDate date, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by date.");
 
-        List<Sale> sales = saleRepository.getAllByDate(date);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(null).productId(null).fromDate(date).toDate(date).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by date.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSalesByCustomerIdAndProductId(Long customerId, Long productId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetAllSalesByCustomerIdAndProductId(Long customerId, Long productId, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by customer and product id.");
 
-        Customer customer = customerComponent.tryFindCustomer(customerId);
-        Product product = productComponent.tryFindProduct(productId);
-        List<Sale> sales = saleRepository.findAllByCustomerAndProductType(customer, product);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(customerId).productId(productId).fromDate(null).toDate(null).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by customer and product id.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSalesByDateAndCustomerId(LocalDate date, Long customerId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetAllSalesByDateAndCustomerId(LocalDate date, Long customerId, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by customer and date.");
 
-        Customer customer = customerComponent.tryFindCustomer(customerId);
-        List<Sale> sales = saleRepository.findAllByCustomerAndDate(customer, date);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(customerId).productId(null).fromDate(date).toDate(date).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by customer and date.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetAllSalesByDateAndProductId(LocalDate date, Long productId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetAllSalesByDateAndProductId(LocalDate date, Long productId, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by date and product id.");
 
-        Product product = productComponent.tryFindProduct(productId);
-        List<Sale> sales = saleRepository.getAllByProductTypeAndDate(product, date);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(null).productId(productId).fromDate(date).toDate(date).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by date and product id.");
 
-        return sales;
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<Sale> tryGetByAll(Long customerId, Long productId, LocalDate date) throws EntityNotFoundException {
+    public KeysetPage<SaleView> tryGetByAll(Long customerId, Long productId, LocalDate date, String cursor, int size) throws EntityNotFoundException {
         log.info("Trying to retrieve all sales by customer, product id and date.");
 
-        Customer customer = customerComponent.tryFindCustomer(customerId);
-        Product product = productComponent.tryFindProduct(productId);
-        List<Sale> sales = saleRepository.findAllByCustomerAndProductTypeAndDate(customer, product, date);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().customerId(customerId).productId(productId).fromDate(date).toDate(date).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
         log.info("Successfully retrieved sales by customer, product id and date.");
 
-        return sales;
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<SaleView> tryGetAllSalesInDateRange(LocalDate fromDate, LocalDate toDate, String cursor, int size) throws InvalidReportRangeException {
+        log.info("Trying to retrieve all sales from date {} to date {}.", fromDate, toDate);
+
+        checkRange(fromDate, toDate);
+        KeysetPage<SaleView> page = findPage(SaleSearchDto.builder().fromDate(fromDate).toDate(toDate).build(),
+                SaleSearchRepository.sortType.DATE_ASC, cursor, size);
+        log.info("Successfully retrieved sales from date {} to date {}.", fromDate, toDate);
+
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductTotalView> tryGetSaleTotalsInDateRange(LocalDate fromDate, LocalDate toDate) throws InvalidReportRangeException {
+        log.info("Trying to sum sales per product from date {} to date {}.", fromDate, toDate);
+
+        checkRange(fromDate, toDate);
+        List<ProductTotalView> totals = saleRepository.sumByProductBetween(fromDate, toDate);
+        log.info("Successfully summed sales of {} products.", totals.size());
+
+        return totals;
+    }
+
+    /**
+     * One query for any combination of filters; only the given ones reach the SQL.
+     * Customer and product are not loaded up front: an unknown id is reported with 404 only when the first page comes back empty.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SaleView> trySearchSales(SaleSearchDto search, SaleSearchRepository.sortType sort, String cursor, int size)
+            throws EntityNotFoundException, InvalidReportRangeException {
+        log.info("Trying to search sales.");
+
+        if (search.getFromDate() != null && search.getToDate() != null) {
+            checkRange(search.getFromDate(), search.getToDate());
+        }
+
+        KeysetPage<SaleView> page = findPage(search, sort, cursor, size);
+        log.info("Successfully searched sales.");
+
+        return page;
+    }
+
+    /**
+     * Writes every matching sale as one JSON line, ordered by (date, id). Rows are read through a
+     * forward-only cursor as read models, so memory does not grow with the history size.
+     */
+    @Transactional(readOnly = true)
+    public void tryStreamSales(Long customerId, Long productId, LocalDate date, OutputStream outputStream) throws IOException {
+        log.info("Trying to stream sales.");
+
+        long count = 0;
+        try (Stream<SaleView> sales = saleRepository.streamAll(customerId, productId, date)) {
+            Iterator<SaleView> iterator = sales.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(jsonMapper.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+
+                if (++count % STREAM_FLUSH_EVERY == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+
+        log.info("Successfully streamed {} sales.", count);
+    }
+
+    private Sale saveSale(Product product, Customer customer, LocalDate date, long quantityMilli, BigDecimal totalCost) {
+        Sale newSale = Sale.builder()
+                .date(date)
+                .customer(customer)
+                .productType(product)
+                .quantityMilli(quantityMilli)
+                .build();
+
+        log.info("Calculating cost.");
+        if (totalCost != null) {
+            newSale.setCost(totalCost);
+        }
+        else {
+            BigDecimal cost = calculateCost(product.getPrice(), newSale.getQuantityMilli());
+            newSale.setCost(cost);
+        }
+
+        log.info("Updating debt.");
+        customerComponent.modifyDebt(newSale.getCost(), customer.getId(), DebtEntry.entryType.SALE);
+
+        log.info("Saving sale.");
+        saleRepository.save(newSale);
+        rollupComponent.recordSale(newSale);
+        outboxComponent.record(OutboxEvent.eventType.SALE_CREATED, newSale.getId(), SaleView.of(newSale));
+
+        return newSale;
+    }
+
+    private void checkRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            log.error("Invalid range {} - {}.", fromDate, toDate);
+            throw new InvalidReportRangeException("The start date must not be after the end date.");
+        }
+    }
+
+    private KeysetPage<SaleView> findPage(SaleSearchDto search, SaleSearchRepository.sortType sort, String cursor, int size) {
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        boolean byCost = sort == SaleSearchRepository.sortType.COST_ASC || sort == SaleSearchRepository.sortType.COST_DESC;
+        Object afterKey = null;
+        Long afterId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            // Μορφή cursor: "<date ή cost>:<id>" της τελευταίας γραμμής της προηγούμενης σελίδας
+            String[] parts = cursor.split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException();
+                }
+                afterKey = byCost ? new BigDecimal(parts[0]) : LocalDate.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                log.error("Invalid cursor {}.", cursor);
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Ζητάμε μία γραμμή παραπάνω για να ξέρουμε αν υπάρχει επόμενη σελίδα
+        List<SaleView> sales = saleRepository.search(search, sort, afterKey, afterId, pageSize + 1);
+        if (sales.isEmpty() && afterKey == null) {
+            // Άδεια πρώτη σελίδα: ελέγχουμε (από την cache) αν υπάρχουν ο πελάτης και το προϊόν για να απαντήσουμε 404
+            if (search.getCustomerId() != null) {
+                customerComponent.tryFindCustomer(search.getCustomerId());
+            }
+            if (search.getProductId() != null) {
+                productComponent.tryFindProduct(search.getProductId());
+            }
+        }
+
+        boolean hasNext = sales.size() > pageSize;
+        if (hasNext) {
+            sales = sales.subList(0, pageSize);
+        }
+
+        SaleView last = sales.isEmpty() ? null : sales.get(sales.size() - 1);
+        String nextCursor = hasNext ? (byCost ? last.cost().toPlainString() : last.date().toString()) + ":" + last.id() : null;
+
+        return new KeysetPage<>(sales, nextCursor, hasNext);
     }
 
-    public BigDecimal calculateCost(BigDecimal unitPrice, double quantity) {
-        BigDecimal weightBD = BigDecimal.valueOf(quantity);
-        return weightBD.multiply(unitPrice);
+    public BigDecimal calculateCost(BigDecimal unitPrice, long quantityMilli) {
+        return Quantity.cost(unitPrice, quantityMilli);
     }
 }
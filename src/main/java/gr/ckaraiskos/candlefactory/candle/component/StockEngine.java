@@ -0,0 +1,292 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.repository.ReservationRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.StockMovementRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.StorageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock of every product, the source of truth for availability checks.
+ * Each product has its own counter, updated with compare-and-set, so sales of different products never wait on each other.
+ * The counter holds the available quantity; quantity held by open reservations is kept apart, so on hand = available + reserved.
+ * At startup the counters are rebuilt from Storage plus the stock movements that are not compacted yet, minus the open reservations.
+ * A transaction that changes a counter holds a shared lock until it completes, and a rebuild takes the lock exclusively,
+ * so it never overwrites a change whose transaction has not committed or rolled back yet.
+ * Assumes a single application instance writes to the database.
+ */
+@Slf4j
+@Component
+@DependsOn("legacyColumnMigrator") // οι ποσότητες διαβάζονται από τις στήλες σε χιλιοστά
+@RequiredArgsConstructor
+public class StockEngine implements InitializingBean {
+
+    private final StorageRepository storageRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ReservationRepository reservationRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Ποσότητες σε χιλιοστά (βλ. Quantity), ώστε οι αλλαγές να είναι ακριβείς και απλά compareAndSet
+    private final Map<Long, AtomicLong> stocks = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> reserved = new ConcurrentHashMap<>();
+
+    // Κοινόχρηστο για τις συναλλαγές που αλλάζουν το απόθεμα, αποκλειστικό για το resync
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean stale;
+
+    @Override
+    public void afterPropertiesSet() {
+        resync();
+        log.info("Loaded stock of {} products.", stocks.size());
+    }
+
+    /**
+     * Rebuilds every counter from the database. Runs at startup and whenever a transaction that changed stock
+     * ended with an unknown outcome, when it is not known whether the in-memory change should stay.
+     * Waits until every transaction holding stock changes has completed, and reads storage, pending movements
+     * and reservations in one snapshot, so a compaction committing in between is counted exactly once.
+     */
+    public void resync() {
+        lock.writeLock().lock();
+        try {
+            stale = false;
+
+            Map<Long, Long> onHand = new HashMap<>();
+            Map<Long, Long> held = new HashMap<>();
+            TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+            snapshot.setReadOnly(true);
+            snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshot.executeWithoutResult(status -> {
+                storageRepository.findAllQuantities()
+                        .forEach(storage -> onHand.put(storage.getProductId(), storage.getQuantityMilli()));
+                stockMovementRepository.sumPendingByProduct()
+                        .forEach(pending -> onHand.computeIfPresent(pending.getProductId(), (productId, quantity) -> quantity + pending.getQuantityMilli()));
+                reservationRepository.sumReservedByProduct()
+                        .forEach(reservation -> held.put(reservation.getProductId(), reservation.getQuantityMilli()));
+            });
+
+            onHand.forEach((productId, quantity) -> {
+                long heldQuantity = held.getOrDefault(productId, 0L);
+                stocks.computeIfAbsent(productId, key -> new AtomicLong()).set(quantity - heldQuantity);
+                reserved.computeIfAbsent(productId, key -> new AtomicLong()).set(heldQuantity);
+            });
+            stocks.keySet().retainAll(onHand.keySet());
+            reserved.keySet().retainAll(onHand.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs the action on the counters once the current transaction has committed, still under its shared lock.
+     */
+    public void afterCommit(Runnable action) {
+        joinTransaction().commitActions.add(action);
+    }
+
+    /**
+     * Runs the action on the counters if the current transaction rolls back, still under its shared lock.
+     */
+    public void onRollback(Runnable action) {
+        joinTransaction().rollbackActions.add(action);
+    }
+
+    public boolean contains(Long productId) {
+        return stocks.containsKey(productId);
+    }
+
+    public OptionalLong available(Long productId) {
+        AtomicLong stock = stocks.get(productId);
+        return stock == null ? OptionalLong.empty() : OptionalLong.of(stock.get());
+    }
+
+    public long reserved(Long productId) {
+        AtomicLong held = reserved.get(productId);
+        return held == null ? 0 : held.get();
+    }
+
+    public OptionalLong onHand(Long productId) {
+        OptionalLong available = available(productId);
+        return available.isPresent() ? OptionalLong.of(available.getAsLong() + reserved(productId)) : available;
+    }
+
+    /**
+     * Takes the quantity out of the stock only if there is enough of it.
+     * Returns false when the stock is insufficient; the caller is expected to know the product has a stock.
+     */
+    public boolean tryTake(Long productId, long quantityMilli) {
+        joinTransaction();
+        AtomicLong stock = stocks.get(productId);
+        if (stock == null) {
+            return false;
+        }
+
+        while (true) {
+            long available = stock.get();
+            if (available < quantityMilli) {
+                return false;
+            }
+            if (stock.compareAndSet(available, available - quantityMilli)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Sets the on-hand quantity to a counted value in one compare-and-set and returns the change it applied,
+     * so a sale that commits in between is not overwritten by a difference computed before it.
+     * Returns empty when the count is less than the quantity held by open reservations; the caller is expected
+     * to know the product has a stock.
+     */
+    public OptionalLong trySetOnHand(Long productId, long onHandMilli) {
+        joinTransaction();
+        AtomicLong stock = stocks.get(productId);
+        if (stock == null) {
+            return OptionalLong.empty();
+        }
+
+        while (true) {
+            long available = stock.get();
+            long target = onHandMilli - reserved(productId);
+            if (target < 0) {
+                return OptionalLong.empty();
+            }
+            if (stock.compareAndSet(available, target)) {
+                return OptionalLong.of(target - available);
+            }
+        }
+    }
+
+    public void add(Long productId, long quantityMilli) {
+        AtomicLong stock = stocks.get(productId);
+        if (stock == null) {
+            log.warn("Stock of product with id {} is not loaded, ignoring change of {}.", productId, quantityMilli);
+            return;
+        }
+
+        stock.addAndGet(quantityMilli);
+    }
+
+    /**
+     * Moves the quantity from available to reserved, only if enough of it is available.
+     */
+    public boolean tryReserve(Long productId, long quantityMilli) {
+        if (!tryTake(productId, quantityMilli)) {
+            return false;
+        }
+
+        accumulate(reserved.get(productId), quantityMilli);
+        return true;
+    }
+
+    /**
+     * Gives a released or expired hold back to the available quantity.
+     */
+    public void release(Long productId, long quantityMilli) {
+        accumulate(reserved.get(productId), -quantityMilli);
+        add(productId, quantityMilli);
+    }
+
+    /**
+     * Drops a confirmed hold; the quantity has left the storage with the sale, so available stays as it is.
+     */
+    public void consumeReserved(Long productId, long quantityMilli) {
+        accumulate(reserved.get(productId), -quantityMilli);
+    }
+
+    /**
+     * Starts the counters of a new storage; reservations of the product that are still open are held from the start.
+     */
+    public void register(Long productId, long quantityMilli) {
+        long held = reservationRepository.sumReservedOfProduct(productId);
+        stocks.put(productId, new AtomicLong(quantityMilli - held));
+        reserved.put(productId, new AtomicLong(held));
+    }
+
+    public void remove(Long productId) {
+        stocks.remove(productId);
+        reserved.remove(productId);
+    }
+
+    private static void accumulate(AtomicLong counter, long quantityMilli) {
+        if (counter != null) {
+            counter.addAndGet(quantityMilli);
+        }
+    }
+
+    // Η πρώτη αλλαγή μιας συναλλαγής παίρνει το κοινόχρηστο lock, που αφήνεται μόνο όταν η συναλλαγή ολοκληρωθεί
+    private StockTransaction joinTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock changes must run inside a transaction.");
+        }
+
+        StockTransaction transaction = (StockTransaction) TransactionSynchronizationManager.getResource(this);
+        if (transaction == null) {
+            lock.readLock().lock();
+            transaction = new StockTransaction();
+            TransactionSynchronizationManager.bindResource(this, transaction);
+            TransactionSynchronizationManager.registerSynchronization(transaction);
+        }
+        return transaction;
+    }
+
+    private class StockTransaction implements TransactionSynchronization {
+
+        private final List<Runnable> commitActions = new ArrayList<>();
+        private final List<Runnable> rollbackActions = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(StockEngine.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(StockEngine.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockEngine.this);
+            try {
+                if (status == STATUS_COMMITTED) {
+                    commitActions.forEach(Runnable::run);
+                } else if (status == STATUS_ROLLED_BACK) {
+                    rollbackActions.forEach(Runnable::run);
+                } else {
+                    // Άγνωστη έκβαση (π.χ. χάθηκε η σύνδεση στο commit): δεν ξέρουμε αν η αλλαγή στη μνήμη πρέπει να μείνει
+                    log.warn("Transaction with stock changes ended with unknown outcome, reloading stock from the database.");
+                    stale = true;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            // Ένα resync μέσα σε εξωτερική συναλλαγή που κρατάει ακόμη το lock θα περίμενε τον εαυτό του
+            if (stale && lock.getReadHoldCount() == 0) {
+                try {
+                    resync();
+                } catch (RuntimeException e) {
+                    log.error("Could not reload stock: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package gr.ckaraiskos.candlefactory.candle.component;
 
 
+import gr.ckaraiskos.candlefactory.candle.dto.StockChangeView;
 import gr.ckaraiskos.candlefactory.candle.dto.StorageDto;
+import gr.ckaraiskos.candlefactory.candle.dto.StorageView;
+import gr.ckaraiskos.candlefactory.candle.entity.OutboxEvent;
 import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import gr.ckaraiskos.candlefactory.candle.entity.StockMovement;
 import gr.ckaraiskos.candlefactory.candle.entity.Storage;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
+import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
 import gr.ckaraiskos.candlefactory.candle.repository.ProductRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.ReservationRepository;
+import gr.ckaraiskos.candlefactory.candle.repository.StockMovementRepository;
 import gr.ckaraiskos.candlefactory.candle.repository.StorageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 @Slf4j
 @Component
@@ -24,6 +43,13 @@ public class StorageComponent {
 
     private final ProductRepository productRepository;
     private final StorageRepository storageRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ReservationRepository reservationRepository;
+    private final StockEngine stockEngine;
+    private final OutboxComponent outboxComponent;
+
+    @Value("${candle.stock.compaction-batch-size:500}")
+    private int compactionBatchSize;
 
     @Transactional
     public Storage tryAddStorage(StorageDto storageDto) throws EntityAlreadyExistsException, EntityNotFoundException {
@@ -41,11 +67,14 @@ public class StorageComponent {
 
         Storage newStorage = Storage.builder()
                 .product(product)
-                .quantity(storageDto.getQuantity())
+                .quantityMilli(storageDto.getQuantityMilli())
                 .build();
 
         log.info("Saving new storage.");
         storageRepository.save(newStorage);
+        outboxComponent.record(OutboxEvent.eventType.STORAGE_CREATED, product.getId(),
+                new StockChangeView(product.getId(), Quantity.toDecimal(newStorage.getQuantityMilli())));
+        stockEngine.afterCommit(() -> stockEngine.register(product.getId(), newStorage.getQuantityMilli()));
         log.info("Added storage successfully.");
 
         return newStorage;
@@ -53,7 +82,7 @@ public class StorageComponent {
 
 
     @Transactional
-    public Storage tryUpdateStorage(Long id, double quantity) throws EntityNotFoundException {
+    public Storage tryUpdateStorage(Long id, BigDecimal quantity) throws EntityNotFoundException, StorageViolationException {
         log.info("Trying to update storage.");
 
         log.info("Checking if storage exists.");
@@ -65,16 +94,101 @@ public class StorageComponent {
 
         log.info("Successfully retrieved storage. Updating...");
 
-        storage.setQuantity(quantity);
-        storageRepository.save(storage);
+        // Η απογραφή περνάει κι αυτή ως κίνηση, η γραμμή του Storage αλλάζει μόνο στο compaction
+        Long productId = storage.getProduct().getId();
+        long quantityMilli = Quantity.ofDecimal(quantity);
+        if (!stockEngine.contains(productId)) {
+            log.error("Stock of product with id {} is not loaded.", productId);
+            throw new EntityNotFoundException("Storage not found.");
+        }
+
+        // Η μνήμη παίρνει την καταμετρημένη τιμή ατομικά και καταγράφεται ακριβώς η διαφορά που εφαρμόστηκε
+        long difference = stockEngine.trySetOnHand(productId, quantityMilli)
+                .orElseThrow(() -> {
+                    log.error("Counted quantity of product with id {} is less than the reserved {}.", productId, stockEngine.reserved(productId));
+                    return new StorageViolationException("Quantity is less than the reserved quantity.");
+                });
+        if (difference != 0) {
+            stockEngine.onRollback(() -> stockEngine.add(productId, -difference));
+            recordMovement(productId, difference);
+        }
 
         log.info("Updated storage successfully.");
-        return storage;
+        return Storage.builder()
+                .id(storage.getId())
+                .product(storage.getProduct())
+                .quantityMilli(quantityMilli)
+                .version(storage.getVersion())
+                .build();
+    }
+
+
+    @Transactional
+    public void tryDecreaseStorage(Long productId, long quantityMilli) throws EntityNotFoundException, StorageViolationException {
+        log.info("Trying to decrease storage of product with id {} by {}.", productId, quantityMilli);
+
+        if (!stockEngine.contains(productId)) {
+            log.error("Storage not found.");
+            throw new EntityNotFoundException("Storage not found.");
+        }
+        decrease(productId, quantityMilli);
+
+        log.info("Decreased storage successfully.");
+    }
+
+
+    @Transactional
+    public void tryIncreaseStorage(Long productId, long quantityMilli) throws EntityNotFoundException {
+        log.info("Trying to increase storage of product with id {} by {}.", productId, quantityMilli);
+
+        if (!stockEngine.contains(productId)) {
+            log.error("Storage not found.");
+            throw new EntityNotFoundException("Storage not found.");
+        }
+        increase(productId, quantityMilli);
+
+        log.info("Increased storage successfully.");
+    }
+
+
+    @Transactional
+    public void tryReserveStock(Long productId, long quantityMilli) throws EntityNotFoundException, StorageViolationException {
+        log.info("Trying to reserve {} of product with id {}.", quantityMilli, productId);
+
+        if (!stockEngine.contains(productId)) {
+            log.error("Storage not found.");
+            throw new EntityNotFoundException("Storage not found.");
+        }
+        if (!stockEngine.tryReserve(productId, quantityMilli)) {
+            log.error("Insufficient stock for product with id {}. Requested: {}", productId, quantityMilli);
+            throw new StorageViolationException("Quantity is greater than the available storage quantity.");
+        }
+        stockEngine.onRollback(() -> stockEngine.release(productId, quantityMilli));
+
+        log.info("Reserved stock successfully.");
+    }
+
+
+    @Transactional
+    public void releaseReservedStock(Long productId, long quantityMilli) {
+        log.info("Releasing {} reserved of product with id {}.", quantityMilli, productId);
+
+        stockEngine.afterCommit(() -> stockEngine.release(productId, quantityMilli));
+    }
+
+
+    @Transactional
+    public void consumeReservedStock(Long productId, long quantityMilli) {
+        log.info("Consuming {} reserved of product with id {}.", quantityMilli, productId);
+
+        // Η ποσότητα έχει ήδη βγει από το διαθέσιμο στην κράτηση, μένει μόνο η κίνηση της αποθήκης
+        recordMovement(productId, -quantityMilli);
+        stockEngine.afterCommit(() -> stockEngine.consumeReserved(productId, quantityMilli));
     }
 
 
     @Transactional
-    public void tryDeleteStorage(Long id) throws EntityNotFoundException, DataIntegrityViolationException {
+    public void tryDeleteStorage(Long id) throws EntityNotFoundException, FailedDeletionException, DataIntegrityViolationException {
         log.info("Trying to delete storage.");
 
         log.info("Checking if storage exists.");
@@ -85,16 +199,21 @@ public class StorageComponent {
                 });
         log.info("Successfully retrieved storage. Deleting...");
 
+        Long productId = storage.getProduct().getId();
+        checkNoOpenReservations(productId);
+        stockMovementRepository.deleteByProductId(productId);
         storageRepository.delete(storage);
+        outboxComponent.record(OutboxEvent.eventType.STORAGE_DELETED, productId, new StockChangeView(productId, null));
+        stockEngine.afterCommit(() -> stockEngine.remove(productId));
         log.info("Deleted storage successfully.");
     }
 
 
     @Transactional(readOnly = true)
-    public List<Storage> tryGetAllStorages() {
+    public List<StorageView> tryGetAllStorages() {
         log.info("Trying to retrieve all storages.");
 
-        List<Storage> storages = storageRepository.findAll();
+        List<StorageView> storages = storageRepository.findAllViews().stream().map(this::withLiveQuantity).toList();
         log.info("Successfully retrieved all storages.");
 
         return storages;
@@ -102,10 +221,10 @@ public class StorageComponent {
 
 
     @Transactional(readOnly = true)
-    public List<Storage> tryGetAllStoragesByMaterial(Product.materialType material) {
+    public List<StorageView> tryGetAllStoragesByMaterial(Product.materialType material) {
         log.info("Trying to retrieve all storages by material procedure.");
 
-        List<Storage> storages = storageRepository.findAllByProduct_Material(material);
+        List<StorageView> storages = storageRepository.findViewsByMaterial(material).stream().map(this::withLiveQuantity).toList();
         log.info("Successfully retrieved all storages by material procedure.");
 
         return storages;
@@ -113,10 +232,10 @@ public class StorageComponent {
 
 
     @Transactional(readOnly = true)
-    public List<Storage> tryGetAllStoragesByProductCode(String productCode) {
+    public List<StorageView> tryGetAllStoragesByProductCode(String productCode) {
         log.info("Trying to retrieve all storages by product code procedure.");
 
-        List<Storage> storages = storageRepository.findAllByProduct_ProductCode(productCode);
+        List<StorageView> storages = storageRepository.findViewsByProductCode(productCode).stream().map(this::withLiveQuantity).toList();
         log.info("Successfully retrieved all storages by product code procedure.");
 
         return storages;
@@ -124,18 +243,19 @@ public class StorageComponent {
 
 
     @Transactional(readOnly = true)
-    public Storage tryGetStorageByProductId(Long id) throws EntityNotFoundException {
+    public StorageView tryGetStorageByProductId(Long id) throws EntityNotFoundException {
         log.info("Trying to retrieve storage by product id.");
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+        if (!productRepository.existsById(id)) {
+            throw new EntityNotFoundException("Product not found");
+        }
 
         log.info("Checking if storage exists.");
-        Optional<Storage> optionalStorage = storageRepository.findStorageByProduct(product);
+        Optional<StorageView> optionalStorage = storageRepository.findViewByProductId(id);
 
         if (optionalStorage.isPresent()) {
             log.info("Successfully retrieved storage by product id.");
-            return optionalStorage.get();
+            return withLiveQuantity(optionalStorage.get());
         }
 
         log.error("Storage not found.");
@@ -143,6 +263,22 @@ public class StorageComponent {
     }
 
 
+    public Map<Long, Long> tryGetAvailableQuantities(Collection<Long> productIds) {
+        log.info("Trying to retrieve available quantities of {} products.", productIds.size());
+
+        Map<Long, Long> quantities = new HashMap<>();
+        for (Long productId : productIds) {
+            OptionalLong quantityMilli = stockEngine.available(productId);
+            if (quantityMilli.isPresent()) {
+                quantities.put(productId, quantityMilli.getAsLong());
+            }
+        }
+
+        log.info("Successfully retrieved {} available quantities.", quantities.size());
+        return quantities;
+    }
+
+
     @Transactional
     public void initiateStorage(Product product) throws EntityAlreadyExistsException {
         log.info("Trying to initiate storage.");
@@ -156,17 +292,19 @@ public class StorageComponent {
         log.info("Initiating storage...");
         Storage newStorage = Storage.builder()
                 .product(product)
-                .quantity(0)
+                .quantityMilli(0)
                 .build();
 
         log.info("Saving new storage.");
         storageRepository.save(newStorage);
+        outboxComponent.record(OutboxEvent.eventType.STORAGE_CREATED, product.getId(), new StockChangeView(product.getId(), Quantity.toDecimal(0)));
+        stockEngine.afterCommit(() -> stockEngine.register(product.getId(), 0));
         log.info("Added storage successfully.");
     }
 
 
     @Transactional
-    public void deleteByProduct(Product product) throws EntityNotFoundException {
+    public void deleteByProduct(Product product) throws EntityNotFoundException, FailedDeletionException {
         log.info("Trying to delete storage by product id.");
 
         log.info("Checking if storage exists.");
@@ -174,7 +312,11 @@ public class StorageComponent {
         if (storage.isPresent()) {
             log.info("Successfully retrieved storage. Deleting...");
 
+            checkNoOpenReservations(product.getId());
+            stockMovementRepository.deleteByProductId(product.getId());
             storageRepository.delete(storage.get());
+            outboxComponent.record(OutboxEvent.eventType.STORAGE_DELETED, product.getId(), new StockChangeView(product.getId(), null));
+            stockEngine.afterCommit(() -> stockEngine.remove(product.getId()));
             log.info("Deleted storage successfully.");
             return;
         }
@@ -182,4 +324,76 @@ public class StorageComponent {
         log.error("Storage not found.");
         throw new EntityNotFoundException("Storage not found.");
     }
+
+
+    @Scheduled(fixedDelayString = "${candle.stock.compaction-interval-ms:1000}")
+    @Transactional
+    public void compactStockMovements() {
+        List<StockMovementRepository.PendingMovement> pending = stockMovementRepository.findPendingMovements(Limit.of(compactionBatchSize));
+
+        while (!pending.isEmpty()) {
+            Map<Long, Long> totals = new HashMap<>();
+            List<Long> ids = new ArrayList<>(pending.size());
+            for (StockMovementRepository.PendingMovement movement : pending) {
+                totals.merge(movement.getProductId(), movement.getQuantityMilli(), Long::sum);
+                ids.add(movement.getId());
+            }
+
+            totals.forEach(storageRepository::increaseQuantity);
+            stockMovementRepository.markCompacted(ids);
+            log.info("Compacted {} stock movements for {} products.", ids.size(), totals.size());
+
+            if (pending.size() < compactionBatchSize) {
+                return;
+            }
+            pending = stockMovementRepository.findPendingMovements(Limit.of(compactionBatchSize));
+        }
+    }
+
+    private void decrease(Long productId, long quantityMilli) throws StorageViolationException {
+        // Η ποσότητα δεσμεύεται αμέσως στη μνήμη και επιστρέφει αν γίνει rollback
+        if (!stockEngine.tryTake(productId, quantityMilli)) {
+            log.error("Insufficient stock for product with id {}. Requested: {}", productId, quantityMilli);
+            throw new StorageViolationException("Quantity is greater than the storage quantity.");
+        }
+        stockEngine.onRollback(() -> stockEngine.add(productId, quantityMilli));
+
+        recordMovement(productId, -quantityMilli);
+    }
+
+    private void increase(Long productId, long quantityMilli) {
+        recordMovement(productId, quantityMilli);
+
+        // Το νέο απόθεμα γίνεται διαθέσιμο μόνο όταν η κίνηση είναι committed
+        stockEngine.afterCommit(() -> stockEngine.add(productId, quantityMilli));
+    }
+
+    private void recordMovement(Long productId, long quantityMilli) {
+        StockMovement movement = StockMovement.builder()
+                .product(productRepository.getReferenceById(productId))
+                .quantityMilli(quantityMilli)
+                .createdAt(LocalDateTime.now())
+                .build();
+        stockMovementRepository.save(movement);
+        outboxComponent.record(OutboxEvent.eventType.STOCK_CHANGED, productId, new StockChangeView(productId, Quantity.toDecimal(quantityMilli)));
+    }
+
+    // Μια αποθήκη που διαγράφεται με ανοιχτές κρατήσεις θα άφηνε τις κρατήσεις χωρίς απόθεμα
+    private void checkNoOpenReservations(Long productId) throws FailedDeletionException {
+        if (reservationRepository.existsByProductId(productId) || stockEngine.reserved(productId) > 0) {
+            log.error("Storage of product with id {} has open reservations.", productId);
+            throw new FailedDeletionException("Storage has open reservations. Release them first.");
+        }
+    }
+
+    private StorageView withLiveQuantity(StorageView view) {
+        OptionalLong available = stockEngine.available(view.productId());
+        if (available.isEmpty()) {
+            return view;
+        }
+
+        long reserved = stockEngine.reserved(view.productId());
+        return new StorageView(view.id(), view.productId(), view.productCode(), view.material(),
+                available.getAsLong() + reserved, reserved, available.getAsLong());
+    }
 }
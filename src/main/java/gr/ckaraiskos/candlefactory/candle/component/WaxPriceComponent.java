@@ -0,0 +1,148 @@
+package gr.ckaraiskos.candlefactory.candle.component;
+
+import gr.ckaraiskos.candlefactory.candle.dto.WaxPriceDto;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.WaxPrice;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.repository.WaxPriceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Prices of returned wax per material, kept in memory as an immutable snapshot.
+ * Valuing a return is a lookup in the snapshot, with no query; every change to the table builds a new snapshot after commit
+ * and swaps it in whole, so readers see either the old or the new price list and never a mix of the two.
+ * Assumes a single application instance writes to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaxPriceComponent implements InitializingBean {
+
+    public record Rate(BigDecimal price, BigDecimal retentionRate) {
+    }
+
+    // Οι τιμές που ίσχυαν πριν από τον πίνακα, για βάση χωρίς καμία γραμμή
+    private static final BigDecimal DEFAULT_PURE_PRICE = new BigDecimal("3.20");
+    private static final BigDecimal DEFAULT_NON_PURE_PRICE = new BigDecimal("0.70");
+    private static final BigDecimal DEFAULT_RETENTION_RATE = new BigDecimal("0.90");
+
+    private final WaxPriceRepository waxPriceRepository;
+
+    private volatile Map<Product.materialType, NavigableMap<LocalDate, Rate>> snapshot = Collections.emptyMap();
+
+    @Override
+    public void afterPropertiesSet() {
+        if (waxPriceRepository.count() == 0) {
+            log.info("Seeding default wax prices.");
+            for (Product.materialType material : Product.materialType.values()) {
+                waxPriceRepository.save(WaxPrice.builder()
+                        .material(material)
+                        .effectiveFrom(LocalDate.EPOCH)
+                        .price(material == Product.materialType.Pure ? DEFAULT_PURE_PRICE : DEFAULT_NON_PURE_PRICE)
+                        .retentionRate(DEFAULT_RETENTION_RATE)
+                        .build());
+            }
+        }
+
+        reload();
+    }
+
+    /**
+     * The rate of the material that applied on the given date, so old returns keep the price of their day.
+     */
+    public Rate tryFindRate(Product.materialType material, LocalDate date) throws EntityNotFoundException {
+        NavigableMap<LocalDate, Rate> rates = snapshot.get(material);
+        Map.Entry<LocalDate, Rate> rate = rates == null ? null : rates.floorEntry(date);
+
+        if (rate == null) {
+            log.error("No wax price for {} on {}.", material, date);
+            throw new EntityNotFoundException("No wax price for " + material + " on " + date + ".");
+        }
+
+        return rate.getValue();
+    }
+
+    @Transactional
+    public WaxPrice tryAddWaxPrice(WaxPriceDto waxPriceDto) {
+        log.info("Trying to set wax price of {} from {}.", waxPriceDto.getMaterial(), waxPriceDto.getEffectiveFrom());
+
+        // Μία τιμή ανά υλικό και ημερομηνία, η ίδια ημερομηνία διορθώνει την υπάρχουσα
+        WaxPrice waxPrice = waxPriceRepository.findByMaterialAndEffectiveFrom(waxPriceDto.getMaterial(), waxPriceDto.getEffectiveFrom())
+                .orElseGet(() -> WaxPrice.builder()
+                        .material(waxPriceDto.getMaterial())
+                        .effectiveFrom(waxPriceDto.getEffectiveFrom())
+                        .build());
+        waxPrice.setPrice(waxPriceDto.getPrice());
+        waxPrice.setRetentionRate(waxPriceDto.getRetentionRate());
+
+        waxPriceRepository.save(waxPrice);
+        afterCommit(this::reload);
+
+        log.info("Wax price set successfully.");
+        return waxPrice;
+    }
+
+    @Transactional
+    public void tryDeleteWaxPrice(Long waxPriceId) throws EntityNotFoundException {
+        log.info("Trying to delete wax price.");
+
+        WaxPrice waxPrice = waxPriceRepository.findById(waxPriceId)
+                .orElseThrow(() -> {
+                    log.error("Wax price with id {} not found.", waxPriceId);
+                    return new EntityNotFoundException("Wax price with id:" + waxPriceId + " not found.");
+                });
+
+        waxPriceRepository.delete(waxPrice);
+        afterCommit(this::reload);
+
+        log.info("Wax price deleted successfully.");
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaxPrice> tryGetAllWaxPrices() {
+        log.info("Trying to retrieve all wax prices.");
+
+        List<WaxPrice> waxPrices = waxPriceRepository.findAllByOrderByMaterialAscEffectiveFromAsc();
+
+        log.info("Successfully retrieved all wax prices.");
+        return waxPrices;
+    }
+
+    // synchronized: ένα reload που διάβασε παλιότερη εικόνα δεν αντικαθιστά ένα νεότερο
+    private synchronized void reload() {
+        Map<Product.materialType, NavigableMap<LocalDate, Rate>> rates = new EnumMap<>(Product.materialType.class);
+        for (WaxPrice waxPrice : waxPriceRepository.findAll()) {
+            rates.computeIfAbsent(waxPrice.getMaterial(), material -> new TreeMap<>())
+                    .put(waxPrice.getEffectiveFrom(), new Rate(waxPrice.getPrice(), waxPrice.getRetentionRate()));
+        }
+        rates.replaceAll((material, byDate) -> Collections.unmodifiableNavigableMap(byDate));
+
+        snapshot = Collections.unmodifiableMap(rates);
+        log.info("Loaded wax prices of {} materials.", rates.size());
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
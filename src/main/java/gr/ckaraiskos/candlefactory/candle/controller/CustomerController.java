@@ -6,11 +6,13 @@ import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
 import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
 import gr.ckaraiskos.candlefactory.candle.service.CustomerService;
+import jakarta.validation.constraints.Positive;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Slf4j
@@ -48,6 +50,13 @@ public class CustomerController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{customerId}/payment")
+    public ResponseEntity<Void> registerPayment(@PathVariable Long customerId, @RequestParam @Positive BigDecimal amount) throws EntityNotFoundException {
+        log.info("Payment of {} for customer with id: {}.", amount, customerId);
+
+        return customerService.registerPayment(customerId, amount);
+    }
+
     @GetMapping("/all")
     public ResponseEntity<List<Customer>> getAllCustomers() throws EntityNotFoundException{
         log.info("Get all customers.");
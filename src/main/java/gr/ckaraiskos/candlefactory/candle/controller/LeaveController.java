@@ -1,13 +1,18 @@
 package gr.ckaraiskos.candlefactory.candle.controller;
 
+import gr.ckaraiskos.candlefactory.candle.component.IdempotencyStore;
 import gr.ckaraiskos.candlefactory.candle.dto.LeaveDto;
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveSummaryView;
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveView;
 import gr.ckaraiskos.candlefactory.candle.entity.Leave;
 import gr.ckaraiskos.candlefactory.candle.service.LeaveService;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -23,10 +28,11 @@ public class LeaveController {
     }
 
     @PostMapping("/add")
-    public ResponseEntity<Leave> requestLeave(@RequestBody LeaveDto leaveDto) {
+    public ResponseEntity<Leave> requestLeave(@RequestBody LeaveDto leaveDto,
+                                              @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("Requested leave for worker with ID:{}", leaveDto.getWorkerId());
 
-        return leaveService.addLeave(leaveDto);
+        return leaveService.addLeave(leaveDto, idempotencyKey);
     }
 
     @PostMapping("/edit")
@@ -36,15 +42,36 @@ public class LeaveController {
         return leaveService.changeLeave(leaveDto);
     }
 
+    @PostMapping("/plan")
+    public ResponseEntity<List<Leave>> planLeaves(@RequestBody List<@Valid LeaveDto> plan) {
+        log.info("Requested plan of {} leaves.", plan.size());
+
+        return leaveService.planLeaves(plan);
+    }
+
     @GetMapping({"/{workerId}/worker"})
-    public ResponseEntity<List<Leave>> getWorkerLeaves(@PathVariable("workerId") Long workerId) {
+    public ResponseEntity<List<LeaveView>> getWorkerLeaves(@PathVariable("workerId") Long workerId) {
         log.info("Get worker leaves for worker with ID:{}", workerId);
 
         return leaveService.workerLeaves(workerId);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<List<LeaveSummaryView>> getYearSummary(@RequestParam(required = false) Integer year) {
+        log.info("Get days of leave of year {}.", year);
+
+        return leaveService.yearSummary(year != null ? year : LocalDate.now().getYear());
+    }
+
+    @GetMapping("/{workerId}/summary")
+    public ResponseEntity<LeaveSummaryView> getWorkerYearSummary(@PathVariable("workerId") Long workerId, @RequestParam(required = false) Integer year) {
+        log.info("Get days of leave of year {} for worker with ID:{}", year, workerId);
+
+        return leaveService.workerYearSummary(workerId, year != null ? year : LocalDate.now().getYear());
+    }
+
     @GetMapping("/day")
-    public ResponseEntity<List<Leave>> getLeavesOfDay() {
+    public ResponseEntity<List<LeaveView>> getLeavesOfDay() {
         log.info("Get leaves of day.");
 
         return leaveService.daysLeaves();
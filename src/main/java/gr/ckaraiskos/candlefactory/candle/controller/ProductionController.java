@@ -1,12 +1,17 @@
 package gr.ckaraiskos.candlefactory.candle.controller;
 
+import gr.ckaraiskos.candlefactory.candle.component.IdempotencyStore;
+import gr.ckaraiskos.candlefactory.candle.dto.KeysetPage;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
 import gr.ckaraiskos.candlefactory.candle.dto.ProductionDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionView;
 import gr.ckaraiskos.candlefactory.candle.entity.Production;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
 import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
 import gr.ckaraiskos.candlefactory.candle.service.ProductionService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -29,10 +34,11 @@ public class ProductionController {
     }
 
     @PostMapping("/add")
-    public ResponseEntity<Production> addProduction(@Valid @RequestBody ProductionDto productionDto) throws EntityAlreadyExistsException {
+    public ResponseEntity<Production> addProduction(@Valid @RequestBody ProductionDto productionDto,
+                                                    @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) throws EntityAlreadyExistsException {
         log.info("Received adding request for production.");
 
-        return ResponseEntity.ok().body(productionService.newProduction(productionDto));
+        return ResponseEntity.ok().body(productionService.newProduction(productionDto, idempotencyKey));
     }
 
     @PutMapping("/edit")
@@ -51,38 +57,46 @@ public class ProductionController {
     }
 
     @GetMapping("/getAll")
-    public ResponseEntity<List<Production>> getAllProductions() {
+    public ResponseEntity<List<ProductionView>> getAllProductions() {
         log.info("Received getAll production request.");
 
         return ResponseEntity.ok().body(productionService.getAll());
     }
 
     @GetMapping("/{productId}/getProduct")
-    public ResponseEntity<List<Production>> getProductionByProduct(@PathVariable("productId") Long productId) throws EntityNotFoundException {
+    public ResponseEntity<List<ProductionView>> getProductionByProduct(@PathVariable("productId") Long productId) throws EntityNotFoundException {
         log.info("Received GET production by product request.");
 
         return ResponseEntity.ok().body(productionService.getByProductId(productId));
     }
 
     @GetMapping("/{date}/getDate")
-    public ResponseEntity<List<Production>> getProductionByDate(@PathVariable("date") LocalDate date) {
+    public ResponseEntity<List<ProductionView>> getProductionByDate(@PathVariable("date") LocalDate date) {
         log.info("Received GET production by date request.");
 
         return ResponseEntity.ok().body(productionService.getByDate(date));
     }
 
     @GetMapping("/getSpecific")
-    public ResponseEntity<Production> getSpecificProduction(@RequestParam LocalDate date, @RequestParam Long productId) throws EntityNotFoundException {
+    public ResponseEntity<ProductionView> getSpecificProduction(@RequestParam LocalDate date, @RequestParam Long productId) throws EntityNotFoundException {
         log.info("Received GET production by date and product request.");
 
         return ResponseEntity.ok().body(productionService.getByDateAndProductId(date, productId));
     }
 
     @GetMapping("/getDateRange")
-    public ResponseEntity<List<Production>> getDateRange(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate) {
+    public ResponseEntity<KeysetPage<ProductionView>> getDateRange(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received GET production by date range request.");
 
-        return  ResponseEntity.ok().body(productionService.getByDateRange(fromDate, toDate));
+        return  ResponseEntity.ok().body(productionService.getByDateRange(fromDate, toDate, cursor, size));
+    }
+
+    @GetMapping("/getDateRangeTotals")
+    public ResponseEntity<List<ProductTotalView>> getDateRangeTotals(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate) {
+        log.info("Received GET production totals by date range request.");
+
+        return ResponseEntity.ok().body(productionService.getTotalsByDateRange(fromDate, toDate));
     }
 
 }
@@ -0,0 +1,55 @@
+package gr.ckaraiskos.candlefactory.candle.controller;
+
+import gr.ckaraiskos.candlefactory.candle.dto.DailyRollupView;
+import gr.ckaraiskos.candlefactory.candle.dto.SalesReportRow;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleReportRepository;
+import gr.ckaraiskos.candlefactory.candle.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/report")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @Autowired
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<List<SalesReportRow>> getSalesReport(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate,
+            @RequestParam(defaultValue = "NONE") SaleReportRepository.dimensionType groupBy,
+            @RequestParam(defaultValue = "NONE") SaleReportRepository.periodType period) throws InvalidReportRangeException {
+        log.info("Received sales report request.");
+
+        return ResponseEntity.ok().body(reportService.salesReport(fromDate, toDate, groupBy, period));
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyRollupView>> getDailyRollups(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate,
+            @RequestParam(required = false) Long productId) throws InvalidReportRangeException {
+        log.info("Received daily rollups request.");
+
+        return ResponseEntity.ok().body(reportService.dailyRollups(fromDate, toDate, productId));
+    }
+
+    @PostMapping("/daily/rebuild")
+    public ResponseEntity<Integer> rebuildDailyRollups(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate) throws InvalidReportRangeException {
+        log.info("Received daily rollups rebuild request.");
+
+        return ResponseEntity.ok().body(reportService.rebuildDailyRollups(fromDate, toDate));
+    }
+}
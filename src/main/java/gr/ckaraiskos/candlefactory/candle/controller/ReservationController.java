@@ -0,0 +1,62 @@
+package gr.ckaraiskos.candlefactory.candle.controller;
+
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationView;
+import gr.ckaraiskos.candlefactory.candle.entity.Reservation;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
+import gr.ckaraiskos.candlefactory.candle.service.ReservationService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/reservation")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @Autowired
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping("/add")
+    public ResponseEntity<Reservation> addReservation(@Valid @RequestBody ReservationDto reservationDto) throws EntityNotFoundException, StorageViolationException {
+        log.info("Received adding request for reservation.");
+
+        return ResponseEntity.ok().body(reservationService.newReservation(reservationDto));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<Sale> confirmReservation(@PathVariable("reservationId") Long reservationId,
+            @RequestParam(required = false) LocalDate date, @RequestParam(required = false) BigDecimal totalCost) throws EntityNotFoundException {
+        log.info("Received confirm request for reservation.");
+
+        return ResponseEntity.ok().body(reservationService.confirmReservation(reservationId, date, totalCost));
+    }
+
+    @DeleteMapping("/{reservationId}/delete")
+    public ResponseEntity<Void> releaseReservation(@PathVariable("reservationId") Long reservationId) throws EntityNotFoundException {
+        log.info("Received release request for reservation.");
+
+        reservationService.releaseReservation(reservationId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/getAll")
+    public ResponseEntity<List<ReservationView>> getAllReservations() {
+        log.info("Received getAll reservations request.");
+
+        return ResponseEntity.ok().body(reservationService.getAll());
+    }
+}
@@ -0,0 +1,61 @@
+package gr.ckaraiskos.candlefactory.candle.controller;
+
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxBatchResultDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxView;
+import gr.ckaraiskos.candlefactory.candle.entity.ReturnedWax;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.service.ReturnedWaxService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/returnedWax")
+public class ReturnedWaxController {
+
+    private final ReturnedWaxService returnedWaxService;
+
+    @Autowired
+    public ReturnedWaxController(ReturnedWaxService returnedWaxService) {
+        this.returnedWaxService = returnedWaxService;
+    }
+
+    @PostMapping("/add")
+    public ResponseEntity<ReturnedWax> addReturnedWax(@Valid @RequestBody ReturnedWaxDto returnedWaxDto) throws EntityNotFoundException {
+        log.info("Received adding request for returned wax.");
+
+        return ResponseEntity.ok().body(returnedWaxService.newReturnedWax(returnedWaxDto));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReturnedWaxBatchResultDto>> addReturnedWaxBatch(@RequestBody List<@Valid ReturnedWaxDto> returnedWaxDtos) {
+        log.info("Received batch adding request for {} returned wax.", returnedWaxDtos.size());
+
+        return ResponseEntity.ok().body(returnedWaxService.newReturnedWaxBatch(returnedWaxDtos));
+    }
+
+    @DeleteMapping("/{returnedWaxId}/delete")
+    public ResponseEntity<Void> deleteReturnedWax(@PathVariable("returnedWaxId") Long returnedWaxId) throws EntityNotFoundException {
+        log.info("Received delete request for returned wax.");
+
+        returnedWaxService.deleteReturnedWaxById(returnedWaxId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{customerId}/getCustomer")
+    public ResponseEntity<List<ReturnedWaxView>> getReturnedWaxByCustomer(@PathVariable("customerId") Long customerId,
+            @RequestParam LocalDate fromDate, @RequestParam LocalDate toDate) throws EntityNotFoundException, InvalidReportRangeException {
+        log.info("Received getReturnedWaxByCustomer request.");
+
+        return ResponseEntity.ok().body(returnedWaxService.getAllByCustomerId(customerId, fromDate, toDate));
+    }
+}
@@ -1,17 +1,28 @@
 package gr.ckaraiskos.candlefactory.candle.controller;
 
+import gr.ckaraiskos.candlefactory.candle.component.IdempotencyStore;
+import gr.ckaraiskos.candlefactory.candle.dto.KeysetPage;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleBatchResultDto;
 import gr.ckaraiskos.candlefactory.candle.dto.SaleDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleSearchDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleView;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
 import gr.ckaraiskos.candlefactory.candle.entity.Sale;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
 import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleSearchRepository;
 import gr.ckaraiskos.candlefactory.candle.service.SaleService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -29,10 +40,18 @@ public class SaleController {
     }
 
     @PostMapping("/add")
-    ResponseEntity<Sale> addSale(@Valid @RequestBody SaleDto saleDto) throws EntityAlreadyExistsException, EntityNotFoundException, StorageViolationException {
+    ResponseEntity<Sale> addSale(@Valid @RequestBody SaleDto saleDto,
+                                @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) throws EntityAlreadyExistsException, EntityNotFoundException, StorageViolationException {
         log.info("Received adding request for sale.");
 
-        return ResponseEntity.ok().body(saleService.newSale(saleDto));
+        return ResponseEntity.ok().body(saleService.newSale(saleDto, idempotencyKey));
+    }
+
+    @PostMapping("/batch")
+    ResponseEntity<List<SaleBatchResultDto>> addSalesBatch(@RequestBody List<@Valid SaleDto> saleDtos) throws StorageViolationException {
+        log.info("Received batch adding request for {} sales.", saleDtos.size());
+
+        return ResponseEntity.ok().body(saleService.newSalesBatch(saleDtos));
     }
 
     @PutMapping("/edit")
@@ -52,58 +71,113 @@ public class SaleController {
     }
 
     @GetMapping("/getAll")
-    ResponseEntity<List<Sale>> getAllSales() {
+    ResponseEntity<KeysetPage<SaleView>> getAllSales(@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getAll sales request.");
 
-        return ResponseEntity.ok().body(saleService.getAll());
+        return ResponseEntity.ok().body(saleService.getAll(cursor, size));
     }
 
     @GetMapping("{customerId}/getCustomer")
-    ResponseEntity<List<Sale>> getSalesByCustomer(@PathVariable("customerId") Long customerId) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByCustomer(@PathVariable("customerId") Long customerId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByCustomer request.");
 
-        return ResponseEntity.ok().body(saleService.getAllByCustomerId(customerId));
+        return ResponseEntity.ok().body(saleService.getAllByCustomerId(customerId, cursor, size));
     }
 
     @GetMapping("/{productId}/getProduct")
-    ResponseEntity<List<Sale>> getSalesByProduct(@PathVariable("productId") Long productId) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByProduct(@PathVariable("productId") Long productId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByProduct request.");
 
-        return ResponseEntity.ok().body(saleService.getAllByProductId(productId));
+        return ResponseEntity.ok().body(saleService.getAllByProductId(productId, cursor, size));
     }
 
     @GetMapping("/{date}/getDate")
-    ResponseEntity<List<Sale>> getSalesByDate(@PathVariable("date") LocalDate date) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByDate(@PathVariable("date") LocalDate date,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByDate request.");
 
-        return ResponseEntity.ok().body(saleService.getAllByDate(date));
+        return ResponseEntity.ok().body(saleService.getAllByDate(date, cursor, size));
     }
 
     @GetMapping("/getCustomerProduct")
-    ResponseEntity<List<Sale>> getSalesByCustomerProduct(@RequestParam Long customerId, @RequestParam Long productId) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByCustomerProduct(@RequestParam Long customerId, @RequestParam Long productId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByCustomerProduct request.");
 
-        return ResponseEntity.ok().body(saleService.getAllByCustomerIdAndProductId(customerId, productId));
+        return ResponseEntity.ok().body(saleService.getAllByCustomerIdAndProductId(customerId, productId, cursor, size));
     }
 
     @GetMapping("/getCustomerDate")
-    ResponseEntity<List<Sale>> getSalesByCustomerDate(@RequestParam Long customerId, @RequestParam LocalDate date) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByCustomerDate(@RequestParam Long customerId, @RequestParam LocalDate date,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByCustomerDate request.");
 
-        return ResponseEntity.ok().body(saleService.getAllByCustomerIdAndDate(customerId, date));
+        return ResponseEntity.ok().body(saleService.getAllByCustomerIdAndDate(customerId, date, cursor, size));
     }
 
     @GetMapping("/getProductDate")
-    ResponseEntity<List<Sale>> getSalesByProductDate(@RequestParam Long productId, @RequestParam LocalDate date) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByProductDate(@RequestParam Long productId, @RequestParam LocalDate date,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByProductDate request.");
 
-        return ResponseEntity.ok().body(saleService.getAllByProductIdAndDate(productId, date));
+        return ResponseEntity.ok().body(saleService.getAllByProductIdAndDate(productId, date, cursor, size));
     }
 
     @GetMapping("/getByAll")
-    ResponseEntity<List<Sale>> getSalesByAll(@RequestParam Long customerId, @RequestParam Long productId, @RequestParam LocalDate date) {
+    ResponseEntity<KeysetPage<SaleView>> getSalesByAll(@RequestParam Long customerId, @RequestParam Long productId, @RequestParam LocalDate date,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Received getSalesByAll request.");
 
-        return ResponseEntity.ok().body(saleService.getByAll(customerId, productId, date));
+        return ResponseEntity.ok().body(saleService.getByAll(customerId, productId, date, cursor, size));
+    }
+
+    @GetMapping("/getDateRange")
+    ResponseEntity<KeysetPage<SaleView>> getSalesByDateRange(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") @Positive int size) {
+        log.info("Received getSalesByDateRange request.");
+
+        return ResponseEntity.ok().body(saleService.getAllInDateRange(fromDate, toDate, cursor, size));
+    }
+
+    @GetMapping("/getDateRangeTotals")
+    ResponseEntity<List<ProductTotalView>> getSaleTotalsByDateRange(@RequestParam LocalDate fromDate, @RequestParam LocalDate toDate) {
+        log.info("Received getSaleTotalsByDateRange request.");
+
+        return ResponseEntity.ok().body(saleService.getTotalsInDateRange(fromDate, toDate));
+    }
+
+    @GetMapping("/search")
+    ResponseEntity<KeysetPage<SaleView>> searchSales(@RequestParam(required = false) Long customerId,
+                                                     @RequestParam(required = false) Long productId,
+                                                     @RequestParam(required = false) Product.materialType material,
+                                                     @RequestParam(required = false) LocalDate fromDate,
+                                                     @RequestParam(required = false) LocalDate toDate,
+                                                     @RequestParam(defaultValue = "DATE_ASC") SaleSearchRepository.sortType sort,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "100") @Positive int size) {
+        log.info("Received searchSales request.");
+
+        SaleSearchDto search = SaleSearchDto.builder()
+                .customerId(customerId)
+                .productId(productId)
+                .material(material)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .build();
+
+        return ResponseEntity.ok().body(saleService.searchSales(search, sort, cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    ResponseEntity<StreamingResponseBody> streamSales(@RequestParam(required = false) Long customerId,
+                                                      @RequestParam(required = false) Long productId,
+                                                      @RequestParam(required = false) LocalDate date) {
+        log.info("Received stream sales request.");
+
+        StreamingResponseBody body = outputStream -> saleService.streamSales(customerId, productId, date, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
     }
 }
@@ -1,18 +1,24 @@
 package gr.ckaraiskos.candlefactory.candle.controller;
 
 import gr.ckaraiskos.candlefactory.candle.dto.StorageDto;
+import gr.ckaraiskos.candlefactory.candle.dto.StorageView;
 import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
 import gr.ckaraiskos.candlefactory.candle.entity.Storage;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
 import gr.ckaraiskos.candlefactory.candle.service.StorageService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Slf4j
@@ -35,14 +41,14 @@ public class StorageController {
     }
 
     @PutMapping("/{storageId}/edit")
-    public ResponseEntity<Storage> editStorage(@PathVariable("storageId") Long storageId, @RequestParam double quantity) throws EntityNotFoundException {
+    public ResponseEntity<Storage> editStorage(@PathVariable("storageId") Long storageId, @RequestParam @PositiveOrZero @Digits(integer = 15, fraction = Quantity.SCALE) BigDecimal quantity) throws EntityNotFoundException {
         log.info("Received edit request for storage.");
 
         return ResponseEntity.ok().body(storageService.updateStorage(storageId, quantity));
     }
 
     @DeleteMapping("{storageId}/delete")
-    public ResponseEntity<Void> deleteStorage(@PathVariable("storageId") Long storageId) throws EntityNotFoundException, DataIntegrityViolationException {
+    public ResponseEntity<Void> deleteStorage(@PathVariable("storageId") Long storageId) throws EntityNotFoundException, FailedDeletionException, DataIntegrityViolationException {
         log.info("Received delete request for storage.");
 
         storageService.deleteStorage(storageId);
@@ -51,28 +57,28 @@ public class StorageController {
     }
 
     @GetMapping("/getAll")
-    public ResponseEntity<List<Storage>> getAllStorage() {
+    public ResponseEntity<List<StorageView>> getAllStorage() {
         log.info("Received getAll request for storage.");
 
         return ResponseEntity.ok().body(storageService.getAll());
     }
 
     @GetMapping("{material}/getMaterial")
-    public ResponseEntity<List<Storage>> getStorageByMaterial(@PathVariable("material") Product.materialType material) {
+    public ResponseEntity<List<StorageView>> getStorageByMaterial(@PathVariable("material") Product.materialType material) {
         log.info("Received GET by material request for storage.");
 
         return  ResponseEntity.ok().body(storageService.getByMaterial(material));
     }
 
     @GetMapping("{productCode}/getCode")
-    public ResponseEntity<List<Storage>> getStorageByProductCode(@PathVariable("productCode") String productCode) {
+    public ResponseEntity<List<StorageView>> getStorageByProductCode(@PathVariable("productCode") String productCode) {
         log.info("Received GET by product code request for storage.");
 
         return  ResponseEntity.ok().body(storageService.getByProductCode(productCode));
     }
 
     @GetMapping("/{productId}/get")
-    public ResponseEntity<Storage> getStorageByProductId(@PathVariable("productId") Long productId) throws EntityNotFoundException {
+    public ResponseEntity<StorageView> getStorageByProductId(@PathVariable("productId") Long productId) throws EntityNotFoundException {
         log.info("Received GET by product id request for storage.");
 
         return ResponseEntity.ok().body(storageService.getStorageByProductId(productId));
@@ -0,0 +1,49 @@
+package gr.ckaraiskos.candlefactory.candle.controller;
+
+import gr.ckaraiskos.candlefactory.candle.dto.WaxPriceDto;
+import gr.ckaraiskos.candlefactory.candle.entity.WaxPrice;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.service.WaxPriceService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/waxPrice")
+public class WaxPriceController {
+
+    private final WaxPriceService waxPriceService;
+
+    @Autowired
+    public WaxPriceController(WaxPriceService waxPriceService) {
+        this.waxPriceService = waxPriceService;
+    }
+
+    @PostMapping("/add")
+    public ResponseEntity<WaxPrice> addWaxPrice(@Valid @RequestBody WaxPriceDto waxPriceDto) {
+        log.info("Received adding request for wax price.");
+
+        return ResponseEntity.ok().body(waxPriceService.newWaxPrice(waxPriceDto));
+    }
+
+    @DeleteMapping("/{waxPriceId}/delete")
+    public ResponseEntity<Void> deleteWaxPrice(@PathVariable("waxPriceId") Long waxPriceId) throws EntityNotFoundException {
+        log.info("Received delete request for wax price.");
+
+        waxPriceService.deleteWaxPriceById(waxPriceId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/getAll")
+    public ResponseEntity<List<WaxPrice>> getAllWaxPrices() {
+        log.info("Received getAll wax prices request.");
+
+        return ResponseEntity.ok().body(waxPriceService.getAll());
+    }
+}
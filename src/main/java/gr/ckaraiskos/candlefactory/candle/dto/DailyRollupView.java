@@ -0,0 +1,26 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read model of one daily rollup row, built directly by the query.
+ */
+public record DailyRollupView(
+        LocalDate date,
+        Long productId,
+        String productCode,
+        BigDecimal soldQuantity,
+        BigDecimal revenue,
+        long saleCount,
+        BigDecimal producedQuantity
+) {
+
+    // Οι ποσότητες έρχονται από το query σε χιλιοστά, βλ. Quantity
+    public DailyRollupView(LocalDate date, Long productId, String productCode, long soldQuantityMilli, BigDecimal revenue,
+                           long saleCount, long producedQuantityMilli) {
+        this(date, productId, productCode, Quantity.toDecimal(soldQuantityMilli), revenue, saleCount, Quantity.toDecimal(producedQuantityMilli));
+    }
+}
@@ -0,0 +1,17 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> content;
+
+    private String nextCursor; // δίνεται ως cursor στο επόμενο αίτημα, null στην τελευταία σελίδα
+
+    private boolean hasNext;
+}
@@ -0,0 +1,11 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+/**
+ * Days of leave a worker has taken within a year.
+ */
+public record LeaveSummaryView(
+        Long workerId,
+        int year,
+        int daysOfLeave
+) {
+}
@@ -0,0 +1,26 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a leave for the list endpoints, built directly by the query.
+ */
+public record LeaveView(
+        Long id,
+        Long workerId,
+        String workerFirstName,
+        String workerLastName,
+        int workerDaysOfLeave,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+
+    // Το query δεν ξέρει τις ημέρες άδειας, συμπληρώνονται από το LeaveSummaryComponent
+    public LeaveView(Long id, Long workerId, String workerFirstName, String workerLastName, LocalDate startDate, LocalDate endDate) {
+        this(id, workerId, workerFirstName, workerLastName, 0, startDate, endDate);
+    }
+
+    public LeaveView withWorkerDaysOfLeave(int daysOfLeave) {
+        return new LeaveView(id, workerId, workerFirstName, workerLastName, daysOfLeave, startDate, endDate);
+    }
+}
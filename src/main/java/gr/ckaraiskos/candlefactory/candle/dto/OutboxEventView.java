@@ -0,0 +1,23 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import gr.ckaraiskos.candlefactory.candle.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as the sinks deliver it; the payload is written as JSON, not as a string.
+ * Delivery is at-least-once, so consumers deduplicate by id.
+ */
+public record OutboxEventView(
+        Long id,
+        OutboxEvent.eventType type,
+        Long aggregateId,
+        LocalDateTime createdAt,
+        @JsonRawValue String payload
+) {
+
+    public static OutboxEventView of(OutboxEvent event) {
+        return new OutboxEventView(event.getId(), event.getType(), event.getAggregateId(), event.getCreatedAt(), event.getPayload());
+    }
+}
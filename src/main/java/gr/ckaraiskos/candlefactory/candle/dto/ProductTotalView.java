@@ -0,0 +1,29 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals of one product over a date range, summed by the query with GROUP BY.
+ * revenue is null for production, which has no cost.
+ */
+public record ProductTotalView(
+        Long productId,
+        String productCode,
+        Product.materialType material,
+        BigDecimal quantity,
+        BigDecimal revenue,
+        long rows
+) {
+
+    // Οι ποσότητες αθροίζονται από το query σε χιλιοστά, βλ. Quantity
+    public ProductTotalView(Long productId, String productCode, Product.materialType material, long quantityMilli, BigDecimal revenue, long rows) {
+        this(productId, productCode, material, Quantity.toDecimal(quantityMilli), revenue, rows);
+    }
+
+    public ProductTotalView(Long productId, String productCode, Product.materialType material, long quantityMilli, long rows) {
+        this(productId, productCode, material, Quantity.toDecimal(quantityMilli), null, rows);
+    }
+}
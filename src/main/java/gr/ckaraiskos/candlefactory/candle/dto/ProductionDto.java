@@ -1,9 +1,14 @@
 package gr.ckaraiskos.candlefactory.candle.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 import java.time.LocalDate;
 
 @Data
@@ -19,5 +24,11 @@ public class ProductionDto {
 
     @NotNull
     @PositiveOrZero
-    private Double quantity;
+    @Digits(integer = 15, fraction = Quantity.SCALE)
+    private BigDecimal quantity;
+
+    @JsonIgnore
+    public long getQuantityMilli() {
+        return Quantity.ofDecimal(quantity);
+    }
 }
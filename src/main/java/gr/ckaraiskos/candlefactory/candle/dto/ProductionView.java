@@ -0,0 +1,31 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Production;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read model of a production for the list endpoints, built directly by the query.
+ */
+public record ProductionView(
+        Long id,
+        LocalDate dateOfProduction,
+        Long productId,
+        String productCode,
+        Product.materialType material,
+        BigDecimal quantity
+) {
+
+    // Η ποσότητα έρχεται από το query σε χιλιοστά, βλ. Quantity
+    public ProductionView(Long id, LocalDate dateOfProduction, Long productId, String productCode, Product.materialType material, long quantityMilli) {
+        this(id, dateOfProduction, productId, productCode, material, Quantity.toDecimal(quantityMilli));
+    }
+
+    public static ProductionView of(Production production) {
+        return new ProductionView(production.getId(), production.getDateOfProduction(), production.getProduct().getId(),
+                production.getProduct().getProductCode(), production.getProduct().getMaterial(), production.getQuantityMilli());
+    }
+}
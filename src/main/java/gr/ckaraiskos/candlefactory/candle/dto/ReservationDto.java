@@ -0,0 +1,34 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ReservationDto {
+    @NotNull
+    private Long customerId;
+
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    @Positive
+    @Digits(integer = 15, fraction = Quantity.SCALE)
+    private BigDecimal quantity;
+
+    @Positive
+    @Max(1440)
+    private Integer ttlMinutes; // αν λείπει, ισχύει το candle.reservation.default-ttl-minutes
+
+    @JsonIgnore
+    public long getQuantityMilli() {
+        return Quantity.ofDecimal(quantity);
+    }
+}
@@ -0,0 +1,28 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an open reservation for the list endpoints, built directly by the query.
+ */
+public record ReservationView(
+        Long id,
+        Long customerId,
+        String customerName,
+        Long productId,
+        String productCode,
+        Product.materialType material,
+        BigDecimal quantity,
+        LocalDateTime expiresAt
+) {
+
+    // Η ποσότητα έρχεται από το query σε χιλιοστά, βλ. Quantity
+    public ReservationView(Long id, Long customerId, String customerName, Long productId, String productCode,
+                           Product.materialType material, long quantityMilli, LocalDateTime expiresAt) {
+        this(id, customerId, customerName, productId, productCode, material, Quantity.toDecimal(quantityMilli), expiresAt);
+    }
+}
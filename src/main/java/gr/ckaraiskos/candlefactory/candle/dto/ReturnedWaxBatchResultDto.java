@@ -0,0 +1,25 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class ReturnedWaxBatchResultDto {
+
+    private int line; // θέση της γραμμής στο αίτημα, από 0
+
+    private boolean success;
+
+    private Long returnedWaxId;
+
+    private BigDecimal totalValue;
+
+    private String message;
+
+    public static ReturnedWaxBatchResultDto failed(int line, String message) {
+        return new ReturnedWaxBatchResultDto(line, false, null, null, message);
+    }
+}
@@ -0,0 +1,36 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class ReturnedWaxDto {
+    @NotNull
+    private Long customerId;
+
+    @NotNull
+    private LocalDate returnDate;
+
+    @NotNull
+    private Product.materialType material;
+
+    @NotNull
+    @Positive
+    @Digits(integer = 15, fraction = Quantity.SCALE)
+    private BigDecimal weight; // κιλά
+
+    private String note;
+
+    @JsonIgnore
+    public long getWeightMilli() {
+        return Quantity.ofDecimal(weight);
+    }
+}
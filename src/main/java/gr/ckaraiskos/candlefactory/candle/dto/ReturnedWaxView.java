@@ -0,0 +1,28 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read model of a wax return for the list endpoints, built directly by the query.
+ */
+public record ReturnedWaxView(
+        Long id,
+        Long customerId,
+        String customerName,
+        LocalDate returnDate,
+        Product.materialType material,
+        BigDecimal weight,
+        BigDecimal totalValue,
+        String note
+) {
+
+    // Το βάρος έρχεται από το query σε γραμμάρια, βλ. Quantity
+    public ReturnedWaxView(Long id, Long customerId, String customerName, LocalDate returnDate, Product.materialType material,
+                           long weightMilli, BigDecimal totalValue, String note) {
+        this(id, customerId, customerName, returnDate, material, Quantity.toDecimal(weightMilli), totalValue, note);
+    }
+}
@@ -0,0 +1,25 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class SaleBatchResultDto {
+
+    private int line; // θέση της γραμμής στο αίτημα, από 0
+
+    private boolean success;
+
+    private Long saleId;
+
+    private BigDecimal cost;
+
+    private String message;
+
+    public static SaleBatchResultDto failed(int line, String message) {
+        return new SaleBatchResultDto(line, false, null, null, message);
+    }
+}
@@ -1,5 +1,8 @@
 package gr.ckaraiskos.candlefactory.candle.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
@@ -22,7 +25,13 @@ public class SaleDto {
 
     @NotNull
     @Positive
-    Double quantity;
+    @Digits(integer = 15, fraction = Quantity.SCALE)
+    BigDecimal quantity;
 
     BigDecimal totalCost;
+
+    @JsonIgnore
+    public long getQuantityMilli() {
+        return Quantity.ofDecimal(quantity);
+    }
 }
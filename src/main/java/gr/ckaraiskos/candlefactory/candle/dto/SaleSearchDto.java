@@ -0,0 +1,29 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of /sale/search; every field is optional and the ones given are combined with AND.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaleSearchDto {
+
+    private Long customerId;
+
+    private Long productId;
+
+    private Product.materialType material;
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+}
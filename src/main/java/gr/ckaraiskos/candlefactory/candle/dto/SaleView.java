@@ -0,0 +1,38 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Read model of a sale for the list endpoints, built directly by the query.
+ */
+public record SaleView(
+        Long id,
+        LocalDate date,
+        Long customerId,
+        String customerName,
+        Long productId,
+        String productCode,
+        Product.materialType material,
+        BigDecimal quantity,
+        BigDecimal cost
+) {
+
+    // Η ποσότητα έρχεται από το query σε χιλιοστά, βλ. Quantity
+    public SaleView(Long id, LocalDate date, Long customerId, String customerName, Long productId, String productCode,
+                    Product.materialType material, long quantityMilli, BigDecimal cost) {
+        this(id, date, customerId, customerName, productId, productCode, material, Quantity.toDecimal(quantityMilli), cost);
+    }
+
+    // Το κόστος στρογγυλοποιείται όπως αποθηκεύεται στη στήλη, ακόμη κι αν η οντότητα δεν έχει ξαναδιαβαστεί
+    public static SaleView of(Sale sale) {
+        return new SaleView(sale.getId(), sale.getDate(), sale.getCustomer().getId(), sale.getCustomer().getName(),
+                sale.getProductType().getId(), sale.getProductType().getProductCode(), sale.getProductType().getMaterial(),
+                sale.getQuantityMilli(), sale.getCost().setScale(2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,18 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One aggregated line of the sales report.
+ * periodStart is null when the report is not split by period, groupId/groupLabel are null when it is not grouped.
+ */
+public record SalesReportRow(
+        LocalDate periodStart,
+        Long groupId,
+        String groupLabel,
+        BigDecimal revenue,
+        BigDecimal quantity,
+        long saleCount
+) {
+}
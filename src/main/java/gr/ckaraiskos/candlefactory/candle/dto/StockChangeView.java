@@ -0,0 +1,13 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Payload of the storage events: the change for STOCK_CHANGED (negative when stock leaves),
+ * the initial stock for STORAGE_CREATED and null for STORAGE_DELETED.
+ */
+public record StockChangeView(
+        Long productId,
+        BigDecimal quantity
+) {
+}
@@ -1,9 +1,14 @@
 package gr.ckaraiskos.candlefactory.candle.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class StorageDto {
     private Long storageId;
@@ -13,5 +18,11 @@ public class StorageDto {
 
     @NotNull
     @PositiveOrZero
-    private Double quantity;
+    @Digits(integer = 15, fraction = Quantity.SCALE)
+    private BigDecimal quantity;
+
+    @JsonIgnore
+    public long getQuantityMilli() {
+        return Quantity.ofDecimal(quantity);
+    }
 }
@@ -0,0 +1,32 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model of a storage for the list endpoints, built directly by the query.
+ * quantity is the stock on hand; available leaves out what open reservations hold.
+ */
+public record StorageView(
+        Long id,
+        Long productId,
+        String productCode,
+        Product.materialType material,
+        BigDecimal quantity,
+        BigDecimal reserved,
+        BigDecimal available
+) {
+
+    // Χρησιμοποιείται από τα constructor expressions των queries, πριν μπουν οι κρατήσεις· η ποσότητα σε χιλιοστά
+    public StorageView(Long id, Long productId, String productCode, Product.materialType material, long quantityMilli) {
+        this(id, productId, productCode, material, quantityMilli, 0, quantityMilli);
+    }
+
+    public StorageView(Long id, Long productId, String productCode, Product.materialType material,
+                       long quantityMilli, long reservedMilli, long availableMilli) {
+        this(id, productId, productCode, material,
+                Quantity.toDecimal(quantityMilli), Quantity.toDecimal(reservedMilli), Quantity.toDecimal(availableMilli));
+    }
+}
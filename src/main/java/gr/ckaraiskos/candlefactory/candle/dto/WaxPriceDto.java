@@ -0,0 +1,29 @@
+package gr.ckaraiskos.candlefactory.candle.dto;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class WaxPriceDto {
+    @NotNull
+    private Product.materialType material;
+
+    @NotNull
+    private LocalDate effectiveFrom;
+
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal price;
+
+    @NotNull
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private BigDecimal retentionRate;
+}
@@ -1,8 +1,11 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 
@@ -13,9 +16,12 @@ import java.math.BigDecimal;
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Τα lazy proxies του Hibernate σειριοποιούνται χωρίς τα εσωτερικά τους
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_id")
+    @TableGenerator(name = "customer_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "customer", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
@@ -24,7 +30,27 @@ public class Customer {
 
     private String phoneNumber;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @Column(precision = 19, scale = 2)
-    private BigDecimal debt; // συνολικό χρέος
-
+    private BigDecimal debt; // χρέος μέχρι το τελευταίο compaction του ledger
+
+    // Κινήσεις του ledger (DebtEntry) που δεν έχουν ακόμα περαστεί στο debt
+    @Formula("(select coalesce(sum(e.amount), 0) from customer_debt_entry e where e.customer_id = id and e.compacted = false)")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Setter(AccessLevel.NONE)
+    private BigDecimal pendingDebt;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // null όταν ο πελάτης δεν διαβάστηκε από τη βάση (π.χ. το αντίγραφο της cache, βλ. CustomerComponent.tryFindCustomer)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public BigDecimal getCurrentDebt() {
+        if (pendingDebt == null) {
+            return null;
+        }
+        BigDecimal snapshot = debt != null ? debt : BigDecimal.ZERO;
+        return snapshot.add(pendingDebt);
+    }
 }
@@ -0,0 +1,48 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily totals of sales and production per product, kept up to date by the same transaction
+ * that writes the sale or production. Can be rebuilt from the raw tables at any time.
+ */
+@Entity
+@Table(name = "daily_product_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_rollup_date_product", columnNames = {"rollup_date", "product_id"}))
+@Builder
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyProductRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "daily_product_rollup_id")
+    @TableGenerator(name = "daily_product_rollup_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "daily_product_rollup", allocationSize = 50)
+    @Column(updatable = false, nullable = false, unique = true)
+    private Long id;
+
+    @NotNull
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate date;
+
+    @NotNull
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Product product;
+
+    private long soldQuantityMilli;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    private long saleCount;
+
+    private long producedQuantityMilli;
+}
@@ -0,0 +1,56 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only movement of a customer's debt (sale, reversal, returned wax, payment).
+ * Customer.debt holds the compacted balance; entries with compacted = false are added on top of it.
+ */
+@Entity
+@Table(name = "customer_debt_entry",
+        indexes = @Index(name = "idx_debt_entry_customer_compacted", columnList = "customer_id, compacted"))
+@Builder
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DebtEntry {
+
+    public enum entryType {
+        SALE, SALE_REVERSAL, RETURN, RETURN_REVERSAL, PAYMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_debt_entry_id")
+    @TableGenerator(name = "customer_debt_entry_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "customer_debt_entry", allocationSize = 50)
+    @Column(updatable = false, nullable = false, unique = true)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Customer customer;
+
+    @NotNull
+    @Column(precision = 19, scale = 2, nullable = false, updatable = false)
+    private BigDecimal amount; // θετικό = χρέωση, αρνητικό = πίστωση
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR) // όχι ENUM στη βάση, το ddl-auto=update αλλάζει και τις υπάρχουσες στήλες σε VARCHAR
+    @Column(length = 32, updatable = false)
+    private entryType type;
+
+    @NotNull
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private boolean compacted; // true όταν το ποσό έχει ήδη περαστεί στο Customer.debt
+}
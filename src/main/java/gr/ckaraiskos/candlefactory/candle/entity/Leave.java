@@ -8,7 +8,11 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "worker_leaves") // <--- ΠΡΟΣΘΗΚΗ ΑΥΤΟΥ (Για να αποφύγουμε το reserved keyword)
+@Table(name = "worker_leaves", // <--- ΠΡΟΣΘΗΚΗ ΑΥΤΟΥ (Για να αποφύγουμε το reserved keyword)
+        indexes = {
+                @Index(name = "idx_leave_start_end", columnList = "start_date, end_date"),
+                @Index(name = "idx_leave_worker_start", columnList = "worker_id, start_date")
+        })
 @Builder
 @Setter
 @Getter
@@ -17,12 +21,14 @@ import java.time.temporal.ChronoUnit;
 public class Leave {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "worker_leaves_id")
+    @TableGenerator(name = "worker_leaves_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "worker_leaves", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
     @NotNull
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Worker worker;
 
     @NotNull
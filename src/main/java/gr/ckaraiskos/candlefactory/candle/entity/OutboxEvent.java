@@ -0,0 +1,55 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event written in the same transaction as the sale, production or stock change it describes,
+ * so an event exists exactly when its change is committed. The OutboxRelay hands the events to the sinks
+ * in id order and marks them published; published events are purged after the retention period.
+ */
+@Entity
+@Table(name = "outbox_event",
+        indexes = @Index(name = "idx_outbox_event_published_id", columnList = "published, id"))
+@Builder
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+    public enum eventType {
+        SALE_CREATED, SALE_UPDATED, SALE_DELETED,
+        PRODUCTION_CREATED, PRODUCTION_UPDATED, PRODUCTION_DELETED,
+        STORAGE_CREATED, STORAGE_DELETED, STOCK_CHANGED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "outbox_event_id")
+    @TableGenerator(name = "outbox_event_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "outbox_event", allocationSize = 50)
+    @Column(updatable = false, nullable = false, unique = true)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private eventType type;
+
+    @NotNull
+    @Column(updatable = false)
+    private Long aggregateId; // id της πώλησης, της παραγωγής ή του προϊόντος για τα γεγονότα αποθήκης
+
+    @NotNull
+    @Column(length = 4000, updatable = false)
+    private String payload; // JSON
+
+    @NotNull
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private boolean published; // true όταν το γεγονός έχει παραδοθεί σε όλα τα sinks
+}
@@ -1,19 +1,25 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Ο κατάλογος αλλάζει σπάνια, τα lazy product των πωλήσεων φορτώνονται από τη μνήμη
 @Builder
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Τα lazy proxies του Hibernate σειριοποιούνται χωρίς τα εσωτερικά τους
 public class Product {
 
     public enum materialType {
@@ -21,7 +27,9 @@ public class Product {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "product", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
@@ -1,13 +1,17 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_production_date_product", columnNames = {"date_of_production", "product_id"}),
+        indexes = @Index(name = "idx_production_product_date", columnList = "product_id, date_of_production"))
 @Builder
 @Setter
 @Getter
@@ -16,7 +20,9 @@ import java.time.LocalDate;
 public class Production {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "production_id")
+    @TableGenerator(name = "production_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "production", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
@@ -24,9 +30,14 @@ public class Production {
     private LocalDate dateOfProduction;
 
     @NotNull
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Product product;
 
     @Positive
-    private double quantity;// κιλά ή τεμάχια, ανάλογα productType.byWeight
+    @JsonIgnore
+    private long quantityMilli; // χιλιοστά του κιλού ή του τεμαχίου, ανάλογα product.byWeight
+
+    public BigDecimal getQuantity() {
+        return Quantity.toDecimal(quantityMilli);
+    }
 }
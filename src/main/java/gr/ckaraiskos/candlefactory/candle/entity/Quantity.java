@@ -0,0 +1,32 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point quantities: kilos or pieces are kept as a long of thousandths (grams for products sold by weight).
+ * The entities, the StockEngine and the queries work on the raw long, so sums and stock deltas are exact and allocate nothing;
+ * BigDecimal appears only at the edges, when a DTO comes in, a response goes out or a cost is calculated.
+ */
+public final class Quantity {
+
+    public static final int SCALE = 3;
+
+    private Quantity() {
+    }
+
+    /**
+     * Throws ArithmeticException when the value has more than three decimals; the DTOs reject those with @Digits first.
+     */
+    public static long ofDecimal(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long milli) {
+        return BigDecimal.valueOf(milli, SCALE);
+    }
+
+    public static BigDecimal cost(BigDecimal unitPrice, long milli) {
+        return unitPrice.multiply(toDecimal(milli));
+    }
+}
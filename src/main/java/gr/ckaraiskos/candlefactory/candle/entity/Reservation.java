@@ -0,0 +1,57 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Stock held for an open order until it is confirmed into a sale, released or expired.
+ * The row exists only while the hold is open.
+ */
+@Entity
+@Table(name = "stock_reservation",
+        indexes = @Index(name = "idx_reservation_expires_id", columnList = "expires_at, id"))
+@Builder
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_reservation_id")
+    @TableGenerator(name = "stock_reservation_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "stock_reservation", allocationSize = 50)
+    @Column(updatable = false, nullable = false, unique = true)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Customer customer;
+
+    @NotNull
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Product product;
+
+    @Positive
+    @JsonIgnore
+    @Column(updatable = false)
+    private long quantityMilli;
+
+    @NotNull
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @NotNull
+    @Column(name = "expires_at", updatable = false)
+    private LocalDateTime expiresAt;
+
+    public BigDecimal getQuantity() {
+        return Quantity.toDecimal(quantityMilli);
+    }
+}
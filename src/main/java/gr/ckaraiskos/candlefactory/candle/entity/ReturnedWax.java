@@ -1,5 +1,6 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -10,17 +11,18 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 
 @Entity
+@Table(name = "returned_wax",
+        indexes = @Index(name = "idx_returned_wax_customer_date", columnList = "customer_id, return_date"))
 @Builder
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
 public class ReturnedWax {
-    static BigDecimal priceOfPure = BigDecimal.valueOf(3.2);
-    static BigDecimal priceOfNonPure = BigDecimal.valueOf(0.7);
-
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "returned_wax_id")
+    @TableGenerator(name = "returned_wax_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "returned_wax", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
@@ -28,7 +30,7 @@ public class ReturnedWax {
     private LocalDate returnDate;
 
     @NotNull
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Customer customer;
 
     @NotNull
@@ -36,30 +38,25 @@ public class ReturnedWax {
     private Product.materialType material;
 
     @Positive
-    private double weight;
+    @JsonIgnore
+    private long weightMilli; // γραμμάρια
 
     @Column(precision = 19, scale = 2)
     private BigDecimal totalValue;
 
     private String note;
 
-    private BigDecimal calculateValue() {
-
-        BigDecimal weightBD = BigDecimal.valueOf(weight);
+    public BigDecimal getWeight() {
+        return Quantity.toDecimal(weightMilli);
+    }
 
-        // Ποσοστό == 90%
-        BigDecimal retentionRate = new BigDecimal("0.90");
+    // Η τιμή και το ποσοστό είναι αυτά που ίσχυαν την ημέρα της επιστροφής, βλ. WaxPrice
+    public BigDecimal calculateValue(BigDecimal pricePerKilo, BigDecimal retentionRate) {
 
         // Καθαρό βάρος
-        BigDecimal effectiveWeight = weightBD.multiply(retentionRate);
+        BigDecimal effectiveWeight = Quantity.toDecimal(weightMilli).multiply(retentionRate);
 
-        BigDecimal selectedPrice;
-        if (material == Product.materialType.Pure) {
-            selectedPrice = priceOfPure;
-        } else {
-            selectedPrice = priceOfNonPure;
-        }
-        BigDecimal totalValue = effectiveWeight.multiply(selectedPrice);
+        BigDecimal totalValue = effectiveWeight.multiply(pricePerKilo);
 
         // Στρογγυλοποίηση
         return totalValue.setScale(2, RoundingMode.HALF_UP);
@@ -1,5 +1,6 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -9,6 +10,12 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_sale_date_id", columnList = "date, id"),
+        @Index(name = "idx_sale_customer_date", columnList = "customer_id, date, id"),
+        @Index(name = "idx_sale_product_date", columnList = "product_type_id, date, id"),
+        @Index(name = "idx_sale_date_product", columnList = "date, product_type_id")
+})
 @Builder
 @Setter
 @Getter
@@ -17,23 +24,29 @@ import java.time.LocalDate;
 
 public class Sale {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sale_id")
+    @TableGenerator(name = "sale_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "sale", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
     @NotNull
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Customer customer;
 
     @NotNull
     private LocalDate date;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Product productType;
 
     @Positive
-    private double quantity;
+    @JsonIgnore
+    private long quantityMilli; // χιλιοστά του κιλού ή του τεμαχίου, βλ. Quantity
 
     private BigDecimal cost = BigDecimal.ZERO;
 
+    public BigDecimal getQuantity() {
+        return Quantity.toDecimal(quantityMilli);
+    }
 }
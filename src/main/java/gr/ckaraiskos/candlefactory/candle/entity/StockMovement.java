@@ -0,0 +1,42 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only change of a product's stock, written in the same transaction as the sale or production.
+ * Storage.quantity holds the compacted stock; entries with compacted = false are added on top of it.
+ */
+@Entity
+@Table(name = "stock_movement",
+        indexes = @Index(name = "idx_stock_movement_compacted_id", columnList = "compacted, id"))
+@Builder
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_movement_id")
+    @TableGenerator(name = "stock_movement_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "stock_movement", allocationSize = 50)
+    @Column(updatable = false, nullable = false, unique = true)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Product product;
+
+    @Column(nullable = false, updatable = false)
+    private long quantityMilli; // θετικό = εισαγωγή, αρνητικό = εξαγωγή
+
+    @NotNull
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private boolean compacted; // true όταν η ποσότητα έχει ήδη περαστεί στο Storage.quantity
+}
@@ -1,10 +1,13 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 
+import java.math.BigDecimal;
+
 @Entity
 @Builder
 @Setter
@@ -14,14 +17,25 @@ import lombok.*;
 public class Storage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "storage_id")
+    @TableGenerator(name = "storage_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "storage", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
     @NotNull
-    @OneToOne(optional = false)
+    @OneToOne(optional = false, fetch = FetchType.LAZY)
     private Product product;
 
     @PositiveOrZero
-    private double quantity;
+    @JsonIgnore
+    private long quantityMilli;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    public BigDecimal getQuantity() {
+        return Quantity.toDecimal(quantityMilli);
+    }
 }
@@ -0,0 +1,46 @@
+package gr.ckaraiskos.candlefactory.candle.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Price per kilo and retention rate paid for returned wax of a material, from effectiveFrom until the next row of the same material.
+ */
+@Entity
+@Table(name = "wax_price",
+        uniqueConstraints = @UniqueConstraint(name = "uk_wax_price_material_from", columnNames = {"material", "effective_from"}))
+@Builder
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaxPrice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "wax_price_id")
+    @TableGenerator(name = "wax_price_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "wax_price", allocationSize = 50)
+    @Column(updatable = false, nullable = false, unique = true)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Product.materialType material;
+
+    @NotNull
+    private LocalDate effectiveFrom;
+
+    @NotNull
+    @PositiveOrZero
+    @Column(precision = 10, scale = 2, nullable = false)
+    private BigDecimal price; // Τιμή ανά κιλό καθαρού βάρους
+
+    @NotNull
+    @Column(precision = 5, scale = 4, nullable = false)
+    private BigDecimal retentionRate; // Ποσοστό του βάρους που λογίζεται καθαρό, π.χ. 0.90
+}
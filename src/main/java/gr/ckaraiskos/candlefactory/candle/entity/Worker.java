@@ -1,5 +1,6 @@
 package gr.ckaraiskos.candlefactory.candle.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
@@ -10,10 +11,13 @@ import lombok.*;
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Τα lazy proxies του Hibernate σειριοποιούνται χωρίς τα εσωτερικά τους
 public class Worker {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "worker_id")
+    @TableGenerator(name = "worker_id", table = "id_generator", pkColumnName = "entity_name", valueColumnName = "next_val",
+            pkColumnValue = "worker", allocationSize = 50)
     @Column(updatable = false, nullable = false, unique = true)
     private Long id;
 
@@ -25,12 +29,9 @@ public class Worker {
     @NotBlank
     private String phoneNumber;
 
-    private int daysOfLeave;
-
     @Override
     public String toString() {
         return firstName + " " + lastName +  " "
-                + "Phone Number: " + phoneNumber + " "
-                + daysOfLeave + " days of leave have been used.";
+                + "Phone Number: " + phoneNumber;
     }
 }
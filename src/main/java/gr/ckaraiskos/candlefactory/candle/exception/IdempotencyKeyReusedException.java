@@ -0,0 +1,7 @@
+package gr.ckaraiskos.candlefactory.candle.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
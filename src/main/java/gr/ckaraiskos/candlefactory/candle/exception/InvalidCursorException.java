@@ -0,0 +1,7 @@
+package gr.ckaraiskos.candlefactory.candle.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
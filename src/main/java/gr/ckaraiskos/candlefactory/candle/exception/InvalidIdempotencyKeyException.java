@@ -0,0 +1,7 @@
+package gr.ckaraiskos.candlefactory.candle.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
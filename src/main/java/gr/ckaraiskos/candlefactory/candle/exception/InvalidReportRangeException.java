@@ -0,0 +1,7 @@
+package gr.ckaraiskos.candlefactory.candle.exception;
+
+public class InvalidReportRangeException extends RuntimeException {
+    public InvalidReportRangeException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,10 @@ package gr.ckaraiskos.candlefactory.candle.repository;
 
 import gr.ckaraiskos.candlefactory.candle.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -10,4 +13,13 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByName(String name);
 
     Optional<Customer> findByPhoneNumber(String phoneNumber);
+
+    @Modifying
+    @Query("""
+            UPDATE Customer c
+            SET c.debt = COALESCE(c.debt, 0) + :amount,
+                c.version = c.version + 1
+            WHERE c.id = :customerId
+            """)
+    int addToDebt(Long customerId, BigDecimal amount);
 }
@@ -0,0 +1,83 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.DailyRollupView;
+import gr.ckaraiskos.candlefactory.candle.entity.DailyProductRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyProductRollupRepository extends JpaRepository<DailyProductRollup, Long> {
+
+    interface SaleTotals {
+        LocalDate getDate();
+
+        Long getProductId();
+
+        Long getQuantityMilli();
+
+        BigDecimal getRevenue();
+
+        Long getSaleCount();
+    }
+
+    interface ProductionTotals {
+        LocalDate getDate();
+
+        Long getProductId();
+
+        Long getQuantityMilli();
+    }
+
+    boolean existsByDateAndProduct_Id(LocalDate date, Long productId);
+
+    /**
+     * Adds the deltas to the existing row in a single statement.
+     * Returns 0 when the row for (date, product) has not been created yet.
+     */
+    @Modifying
+    @Query("""
+            UPDATE DailyProductRollup r
+            SET r.soldQuantityMilli = r.soldQuantityMilli + :soldQuantityMilli,
+                r.revenue = r.revenue + :revenue,
+                r.saleCount = r.saleCount + :saleCount,
+                r.producedQuantityMilli = r.producedQuantityMilli + :producedQuantityMilli
+            WHERE r.date = :date
+              AND r.product.id = :productId
+            """)
+    int addToRollup(LocalDate date, Long productId, long soldQuantityMilli, BigDecimal revenue, long saleCount, long producedQuantityMilli);
+
+    @Modifying
+    @Query("DELETE FROM DailyProductRollup r WHERE r.date BETWEEN :fromDate AND :toDate")
+    int deleteBetween(LocalDate fromDate, LocalDate toDate);
+
+    @Query("""
+            SELECT s.date AS date, s.productType.id AS productId, SUM(s.quantityMilli) AS quantityMilli,
+                   SUM(s.cost) AS revenue, COUNT(s) AS saleCount
+            FROM Sale s
+            WHERE s.date BETWEEN :fromDate AND :toDate
+            GROUP BY s.date, s.productType.id
+            """)
+    List<SaleTotals> sumSalesByDay(LocalDate fromDate, LocalDate toDate);
+
+    @Query("""
+            SELECT p.dateOfProduction AS date, p.product.id AS productId, SUM(p.quantityMilli) AS quantityMilli
+            FROM Production p
+            WHERE p.dateOfProduction BETWEEN :fromDate AND :toDate
+            GROUP BY p.dateOfProduction, p.product.id
+            """)
+    List<ProductionTotals> sumProductionByDay(LocalDate fromDate, LocalDate toDate);
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.DailyRollupView(
+                r.date, p.id, p.productCode, r.soldQuantityMilli, r.revenue, r.saleCount, r.producedQuantityMilli)
+            FROM DailyProductRollup r JOIN r.product p
+            WHERE r.date BETWEEN :fromDate AND :toDate
+              AND (:productId IS NULL OR p.id = :productId)
+            ORDER BY r.date, p.productCode
+            """)
+    List<DailyRollupView> findViewsBetween(LocalDate fromDate, LocalDate toDate, Long productId);
+}
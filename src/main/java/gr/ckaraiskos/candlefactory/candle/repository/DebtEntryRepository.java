@@ -0,0 +1,34 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.entity.DebtEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface DebtEntryRepository extends JpaRepository<DebtEntry, Long> {
+
+    interface PendingEntry {
+        Long getId();
+
+        Long getCustomerId();
+
+        BigDecimal getAmount();
+    }
+
+    @Query("""
+            SELECT e.id AS id, e.customer.id AS customerId, e.amount AS amount
+            FROM DebtEntry e
+            WHERE e.compacted = false
+            ORDER BY e.id
+            """)
+    List<PendingEntry> findPendingEntries(Limit limit);
+
+    @Modifying
+    @Query("UPDATE DebtEntry e SET e.compacted = true WHERE e.id IN :ids")
+    int markCompacted(Collection<Long> ids);
+}
@@ -1,27 +1,75 @@
 package gr.ckaraiskos.candlefactory.candle.repository;
 
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveView;
 import gr.ckaraiskos.candlefactory.candle.entity.Leave;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface LeaveRepository extends JpaRepository<Leave, Long> {
 
+    interface LeaveInterval {
+        Long getId();
+
+        Long getWorkerId();
+
+        LocalDate getStartDate();
+
+        LocalDate getEndDate();
+    }
+
+    interface WorkerDays {
+        Long getWorkerId();
+
+        Long getDays();
+    }
+
+    @Override
+    @EntityGraph(attributePaths = "worker") // Η απάντηση του edit σειριοποιεί και τον εργαζόμενο
+    Optional<Leave> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "worker")
+    List<Leave> findAllById(Iterable<Long> ids);
+
     void deleteByWorkerId(Long workerId);
 
     /**
-     * Finds all leaves that overlap with the given interval.
-     * Overlap condition:
-     *    (startDate <= end) AND (endDate >= start)
+     * Days of leave per worker within [yearStart, yearEnd]; a leave that crosses the new year counts only its days inside it.
      */
     @Query("""
-            SELECT l FROM Leave l
+            SELECT l.worker.id AS workerId,
+                   SUM((least(l.endDate, :yearEnd) - greatest(l.startDate, :yearStart)) by day + 1) AS days
+            FROM Leave l
+            WHERE l.startDate <= :yearEnd
+              AND l.endDate >= :yearStart
+            GROUP BY l.worker.id
+            """)
+    List<WorkerDays> sumDaysByWorker(LocalDate yearStart, LocalDate yearEnd);
+
+    @Query("SELECT l.id AS id, l.worker.id AS workerId, l.startDate AS startDate, l.endDate AS endDate FROM Leave l")
+    List<LeaveInterval> findAllIntervals();
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.LeaveView(
+                l.id, w.id, w.firstName, w.lastName, l.startDate, l.endDate)
+            FROM Leave l JOIN l.worker w
+            WHERE w.id = :workerId
+            ORDER BY l.startDate
+            """)
+    List<LeaveView> findViewsByWorkerId(Long workerId);
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.LeaveView(
+                l.id, w.id, w.firstName, w.lastName, l.startDate, l.endDate)
+            FROM Leave l JOIN l.worker w
             WHERE l.startDate <= :endDate
               AND l.endDate >= :startDate
+            ORDER BY l.startDate
             """)
-    List<Leave> findOverlappingLeaves(LocalDate startDate, LocalDate endDate);
-
-    List<Leave> findAllByWorker_Id(Long workerId);
+    List<LeaveView> findOverlappingViews(LocalDate startDate, LocalDate endDate);
 }
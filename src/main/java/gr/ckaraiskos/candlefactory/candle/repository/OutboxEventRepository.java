@@ -0,0 +1,29 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("""
+            SELECT e FROM OutboxEvent e
+            WHERE e.published = false
+            ORDER BY e.id
+            """)
+    List<OutboxEvent> findPending(Limit limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.published = true WHERE e.id IN :ids")
+    int markPublished(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.published = true AND e.createdAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
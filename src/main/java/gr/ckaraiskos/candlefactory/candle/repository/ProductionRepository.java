@@ -1,9 +1,11 @@
 package gr.ckaraiskos.candlefactory.candle.repository;
 
-import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionView;
 import gr.ckaraiskos.candlefactory.candle.entity.Production;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,11 +13,61 @@ import java.util.Optional;
 
 public interface ProductionRepository extends JpaRepository<Production, Long> {
 
-    Optional<Production> findByDateOfProductionAndProduct(LocalDate dateOfProduction, Product product);
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductionView(
+                pr.id, pr.dateOfProduction, p.id, p.productCode, p.material, pr.quantityMilli)
+            FROM Production pr JOIN pr.product p
+            ORDER BY pr.dateOfProduction, pr.id
+            """)
+    List<ProductionView> findAllViews();
 
-    List<Production> findAllByProductOrderByDateOfProductionDesc(Product product);
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductionView(
+                pr.id, pr.dateOfProduction, p.id, p.productCode, p.material, pr.quantityMilli)
+            FROM Production pr JOIN pr.product p
+            WHERE p.id = :productId
+            ORDER BY pr.dateOfProduction DESC
+            """)
+    List<ProductionView> findViewsByProductId(Long productId);
 
-    List<Production> findAllByDateOfProduction(LocalDate dateOfProduction);
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductionView(
+                pr.id, pr.dateOfProduction, p.id, p.productCode, p.material, pr.quantityMilli)
+            FROM Production pr JOIN pr.product p
+            WHERE pr.dateOfProduction = :date
+            """)
+    List<ProductionView> findViewsByDate(LocalDate date);
 
-    List<Production> findAllByDateOfProductionBetween(LocalDate dateOfProductionAfter, LocalDate dateOfProductionBefore);
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductionView(
+                pr.id, pr.dateOfProduction, p.id, p.productCode, p.material, pr.quantityMilli)
+            FROM Production pr JOIN pr.product p
+            WHERE pr.dateOfProduction = :date
+              AND p.id = :productId
+            """)
+    Optional<ProductionView> findViewByDateAndProductId(LocalDate date, Long productId);
+
+    boolean existsByDateOfProductionAndProductId(LocalDate dateOfProduction, Long productId);
+
+    // Keyset σελιδοποίηση κατά (date, product), το μοναδικό κλειδί uk_production_date_product
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductionView(
+                pr.id, pr.dateOfProduction, p.id, p.productCode, p.material, pr.quantityMilli)
+            FROM Production pr JOIN pr.product p
+            WHERE pr.dateOfProduction BETWEEN :fromDate AND :toDate
+              AND (:afterDate IS NULL OR pr.dateOfProduction > :afterDate
+                   OR (pr.dateOfProduction = :afterDate AND p.id > :afterProductId))
+            ORDER BY pr.dateOfProduction, p.id
+            """)
+    List<ProductionView> findPageBetween(LocalDate fromDate, LocalDate toDate, LocalDate afterDate, Long afterProductId, Limit limit);
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView(
+                p.id, p.productCode, p.material, SUM(pr.quantityMilli), COUNT(pr))
+            FROM Production pr JOIN pr.product p
+            WHERE pr.dateOfProduction BETWEEN :fromDate AND :toDate
+            GROUP BY p.id, p.productCode, p.material
+            ORDER BY p.id
+            """)
+    List<ProductTotalView> sumByProductBetween(LocalDate fromDate, LocalDate toDate);
 }
@@ -0,0 +1,74 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationView;
+import gr.ckaraiskos.candlefactory.candle.entity.Reservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    interface HeldQuantity {
+        Long getId();
+
+        Long getProductId();
+
+        long getQuantityMilli();
+    }
+
+    interface ProductQuantity {
+        Long getProductId();
+
+        long getQuantityMilli();
+    }
+
+    @Override
+    @EntityGraph(attributePaths = {"customer", "product"})
+    Optional<Reservation> findById(Long id);
+
+    // Διαβάζει με τη σειρά του idx_reservation_expires_id, μόνο όσες έχουν ήδη λήξει
+    @Query("""
+            SELECT r.id AS id, r.product.id AS productId, r.quantityMilli AS quantityMilli
+            FROM Reservation r
+            WHERE r.expiresAt <= :now
+            ORDER BY r.expiresAt, r.id
+            """)
+    List<HeldQuantity> findExpired(LocalDateTime now, Limit limit);
+
+    @Query("""
+            SELECT r.product.id AS productId, SUM(r.quantityMilli) AS quantityMilli
+            FROM Reservation r
+            GROUP BY r.product.id
+            """)
+    List<ProductQuantity> sumReservedByProduct();
+
+    @Query("SELECT COALESCE(SUM(r.quantityMilli), 0) FROM Reservation r WHERE r.product.id = :productId")
+    long sumReservedOfProduct(Long productId);
+
+    boolean existsByProductId(Long productId);
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ReservationView(r.id, c.id, c.name, p.id, p.productCode, p.material, r.quantityMilli, r.expiresAt)
+            FROM Reservation r JOIN r.customer c JOIN r.product p
+            ORDER BY r.expiresAt, r.id
+            """)
+    List<ReservationView> findAllViews();
+
+    /**
+     * Deletes the reservation only if it has not expired yet.
+     * Returns 0 when another request already confirmed, released or swept it.
+     */
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id = :id AND r.expiresAt > :now")
+    int deleteIfOpen(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id = :id")
+    int deleteIfPresent(Long id);
+}
@@ -0,0 +1,21 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxView;
+import gr.ckaraiskos.candlefactory.candle.entity.ReturnedWax;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReturnedWaxRepository extends JpaRepository<ReturnedWax, Long> {
+
+    // Διαβάζει με τη σειρά του idx_returned_wax_customer_date
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxView(w.id, c.id, c.name, w.returnDate, w.material, w.weightMilli, w.totalValue, w.note)
+            FROM ReturnedWax w JOIN w.customer c
+            WHERE c.id = :customerId AND w.returnDate BETWEEN :from AND :to
+            ORDER BY w.returnDate, w.id
+            """)
+    List<ReturnedWaxView> findViewsByCustomerAndDateRange(Long customerId, LocalDate from, LocalDate to);
+}
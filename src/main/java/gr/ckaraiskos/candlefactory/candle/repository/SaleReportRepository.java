@@ -0,0 +1,27 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.SalesReportRow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregate queries over sales, computed by the database with GROUP BY.
+ */
+public interface SaleReportRepository {
+
+    enum dimensionType {
+        NONE, CUSTOMER, PRODUCT, MATERIAL
+    }
+
+    // Η εβδομάδα υπολογίζεται από τις ημερήσιες γραμμές στο ReportComponent
+    enum periodType {
+        NONE, DAY, WEEK, MONTH, YEAR
+    }
+
+    /**
+     * Sums revenue, quantity and number of sales for fromDate <= date <= toDate.
+     * Only NONE, DAY, MONTH and YEAR periods are grouped here; periodStart is the first day of the period.
+     */
+    List<SalesReportRow> aggregateSales(LocalDate fromDate, LocalDate toDate, dimensionType groupBy, periodType period);
+}
@@ -0,0 +1,106 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.SalesReportRow;
+import gr.ckaraiskos.candlefactory.candle.entity.Quantity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SaleReportRepositoryImpl implements SaleReportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SalesReportRow> aggregateSales(LocalDate fromDate, LocalDate toDate, dimensionType groupBy, periodType period) {
+        if (period == periodType.WEEK) {
+            throw new IllegalArgumentException("Weekly reports are built from daily rows.");
+        }
+
+        // Οι στήλες ομαδοποίησης μπαίνουν πρώτες στο SELECT, με σταθερή σειρά: περίοδος, ομάδα
+        List<String> groupColumns = new ArrayList<>();
+        switch (period) {
+            case DAY -> groupColumns.add("s.date");
+            case MONTH -> {
+                groupColumns.add("extract(year from s.date)");
+                groupColumns.add("extract(month from s.date)");
+            }
+            case YEAR -> groupColumns.add("extract(year from s.date)");
+            default -> {
+            }
+        }
+        int periodColumns = groupColumns.size();
+
+        String join = "";
+        switch (groupBy) {
+            case CUSTOMER -> {
+                join = " JOIN s.customer c";
+                groupColumns.add("c.id");
+                groupColumns.add("c.name");
+            }
+            case PRODUCT -> {
+                join = " JOIN s.productType p";
+                groupColumns.add("p.id");
+                groupColumns.add("p.productCode");
+            }
+            case MATERIAL -> {
+                join = " JOIN s.productType p";
+                groupColumns.add("p.material");
+            }
+            default -> {
+            }
+        }
+
+        String columns = String.join(", ", groupColumns);
+        StringBuilder query = new StringBuilder("SELECT ");
+        if (!columns.isEmpty()) {
+            query.append(columns).append(", ");
+        }
+        query.append("SUM(s.cost), SUM(s.quantityMilli), COUNT(s) FROM Sale s").append(join)
+                .append(" WHERE s.date BETWEEN :fromDate AND :toDate");
+        if (!columns.isEmpty()) {
+            query.append(" GROUP BY ").append(columns).append(" ORDER BY ").append(columns);
+        }
+
+        List<Object[]> rows = entityManager.createQuery(query.toString(), Object[].class)
+                .setParameter("fromDate", fromDate)
+                .setParameter("toDate", toDate)
+                .getResultList();
+
+        List<SalesReportRow> report = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDate periodStart = switch (period) {
+                case DAY -> (LocalDate) row[0];
+                case MONTH -> LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1);
+                case YEAR -> LocalDate.of(((Number) row[0]).intValue(), 1, 1);
+                default -> null;
+            };
+
+            Long groupId = null;
+            String groupLabel = null;
+            switch (groupBy) {
+                case CUSTOMER, PRODUCT -> {
+                    groupId = (Long) row[periodColumns];
+                    groupLabel = (String) row[periodColumns + 1];
+                }
+                case MATERIAL -> groupLabel = String.valueOf(row[periodColumns]);
+                default -> {
+                }
+            }
+
+            int sums = groupColumns.size();
+            // Χωρίς ομαδοποίηση το SUM είναι null όταν δεν υπάρχουν πωλήσεις στο διάστημα
+            BigDecimal revenue = row[sums] == null ? BigDecimal.ZERO : (BigDecimal) row[sums];
+            long quantityMilli = row[sums + 1] == null ? 0 : ((Number) row[sums + 1]).longValue();
+            long count = ((Number) row[sums + 2]).longValue();
+
+            report.add(new SalesReportRow(periodStart, groupId, groupLabel, revenue, Quantity.toDecimal(quantityMilli), count));
+        }
+
+        return report;
+    }
+}
@@ -1,26 +1,40 @@
 package gr.ckaraiskos.candlefactory.candle.repository;
 
-import gr.ckaraiskos.candlefactory.candle.entity.Customer;
-import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleView;
 import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
 import java.util.List;
-
-public interface SaleRepository extends JpaRepository<Sale, Long> {
-
-    List<Sale> findAllByCustomerOrderByDate(Customer customer);
-
-    List<Sale> findAllByProductTypeOrderByDate(Product productType);
-
-    List<Sale> findAllByCustomerAndProductType(Customer customer, Product productType);
-
-    List<Sale> getAllByDate(LocalDate date);
-
-    List<Sale> getAllByProductTypeAndDate(Product productType, LocalDate date);
-
-    List<Sale> findAllByCustomerAndDate(Customer customer, LocalDate date);
-
-    List<Sale> findAllByCustomerAndProductTypeAndDate(Customer customer, Product productType, LocalDate date);
+import java.util.stream.Stream;
+
+public interface SaleRepository extends JpaRepository<Sale, Long>, SaleReportRepository, SaleSearchRepository {
+
+    // Σύνολα ανά προϊόν σε ένα εύρος ημερομηνιών, με range scan στο idx_sale_date_product
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView(
+                p.id, p.productCode, p.material, SUM(s.quantityMilli), SUM(s.cost), COUNT(s))
+            FROM Sale s JOIN s.productType p
+            WHERE s.date BETWEEN :fromDate AND :toDate
+            GROUP BY p.id, p.productCode, p.material
+            ORDER BY p.id
+            """)
+    List<ProductTotalView> sumByProductBetween(LocalDate fromDate, LocalDate toDate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.SaleView(
+                s.id, s.date, c.id, c.name, p.id, p.productCode, p.material, s.quantityMilli, s.cost)
+            FROM Sale s JOIN s.customer c JOIN s.productType p
+            WHERE (:customerId IS NULL OR c.id = :customerId)
+              AND (:productId IS NULL OR p.id = :productId)
+              AND (:date IS NULL OR s.date = :date)
+            ORDER BY s.date, s.id
+            """)
+    Stream<SaleView> streamAll(Long customerId, Long productId, LocalDate date);
 }
@@ -0,0 +1,22 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.SaleSearchDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleView;
+
+import java.util.List;
+
+/**
+ * Sale search with only the filters that are given, built with the Criteria API.
+ */
+public interface SaleSearchRepository {
+
+    enum sortType {
+        DATE_ASC, DATE_DESC, COST_ASC, COST_DESC
+    }
+
+    /**
+     * Keyset page of sales ordered by the sort key and then by id in the same direction.
+     * afterKey and afterId are the sort key (LocalDate or BigDecimal) and id of the last row of the previous page, both null for the first page.
+     */
+    List<SaleView> search(SaleSearchDto search, sortType sort, Object afterKey, Long afterId, int limit);
+}
@@ -0,0 +1,88 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.dto.SaleSearchDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleView;
+import gr.ckaraiskos.candlefactory.candle.entity.Customer;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SaleSearchRepositoryImpl implements SaleSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SaleView> search(SaleSearchDto search, sortType sort, Object afterKey, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SaleView> query = cb.createQuery(SaleView.class);
+        Root<Sale> sale = query.from(Sale.class);
+        Join<Sale, Customer> customer = sale.join("customer");
+        Join<Sale, Product> product = sale.join("productType");
+
+        query.select(cb.construct(SaleView.class,
+                sale.get("id"), sale.get("date"), customer.get("id"), customer.get("name"),
+                product.get("id"), product.get("productCode"), product.get("material"), sale.get("quantityMilli"), sale.get("cost")));
+
+        // Μόνο τα φίλτρα που δόθηκαν, ώστε η βάση να διαλέγει index για το συγκεκριμένο συνδυασμό
+        List<Predicate> where = new ArrayList<>();
+        if (search.getCustomerId() != null) {
+            where.add(cb.equal(sale.get("customer").get("id"), search.getCustomerId()));
+        }
+        if (search.getProductId() != null) {
+            where.add(cb.equal(sale.get("productType").get("id"), search.getProductId()));
+        }
+        if (search.getMaterial() != null) {
+            where.add(cb.equal(product.get("material"), search.getMaterial()));
+        }
+        if (search.getFromDate() != null) {
+            where.add(cb.greaterThanOrEqualTo(sale.get("date"), search.getFromDate()));
+        }
+        if (search.getToDate() != null) {
+            where.add(cb.lessThanOrEqualTo(sale.get("date"), search.getToDate()));
+        }
+
+        boolean descending = sort == sortType.DATE_DESC || sort == sortType.COST_DESC;
+        Path<Long> id = sale.get("id");
+        if (sort == sortType.COST_ASC || sort == sortType.COST_DESC) {
+            Path<BigDecimal> cost = sale.get("cost");
+            if (afterKey != null) {
+                where.add(after(cb, cost, id, (BigDecimal) afterKey, afterId, descending));
+            }
+            query.orderBy(descending ? List.of(cb.desc(cost), cb.desc(id)) : List.of(cb.asc(cost), cb.asc(id)));
+        } else {
+            Path<LocalDate> date = sale.get("date");
+            if (afterKey != null) {
+                where.add(after(cb, date, id, (LocalDate) afterKey, afterId, descending));
+            }
+            query.orderBy(descending ? List.of(cb.desc(date), cb.desc(id)) : List.of(cb.asc(date), cb.asc(id)));
+        }
+
+        query.where(where.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Οι γραμμές που έρχονται μετά από την (afterKey, afterId) με τη σειρά της ταξινόμησης
+    private static <T extends Comparable<? super T>> Predicate after(CriteriaBuilder cb, Path<T> key, Path<Long> id, T afterKey, Long afterId,
+                                                                     boolean descending) {
+        if (descending) {
+            return cb.or(cb.lessThan(key, afterKey), cb.and(cb.equal(key, afterKey), cb.lessThan(id, afterId)));
+        }
+        return cb.or(cb.greaterThan(key, afterKey), cb.and(cb.equal(key, afterKey), cb.greaterThan(id, afterId)));
+    }
+}
@@ -0,0 +1,51 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.entity.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    interface PendingMovement {
+        Long getId();
+
+        Long getProductId();
+
+        long getQuantityMilli();
+    }
+
+    interface ProductQuantity {
+        Long getProductId();
+
+        long getQuantityMilli();
+    }
+
+    @Query("""
+            SELECT m.id AS id, m.product.id AS productId, m.quantityMilli AS quantityMilli
+            FROM StockMovement m
+            WHERE m.compacted = false
+            ORDER BY m.id
+            """)
+    List<PendingMovement> findPendingMovements(Limit limit);
+
+    @Query("""
+            SELECT m.product.id AS productId, SUM(m.quantityMilli) AS quantityMilli
+            FROM StockMovement m
+            WHERE m.compacted = false
+            GROUP BY m.product.id
+            """)
+    List<ProductQuantity> sumPendingByProduct();
+
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.compacted = true WHERE m.id IN :ids")
+    int markCompacted(Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM StockMovement m WHERE m.product.id = :productId")
+    int deleteByProductId(Long productId);
+}
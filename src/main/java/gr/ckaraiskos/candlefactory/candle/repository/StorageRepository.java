@@ -1,18 +1,66 @@
 package gr.ckaraiskos.candlefactory.candle.repository;
 
+import gr.ckaraiskos.candlefactory.candle.dto.StorageView;
 import gr.ckaraiskos.candlefactory.candle.entity.Product;
 import gr.ckaraiskos.candlefactory.candle.entity.Storage;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface StorageRepository extends JpaRepository<Storage, Long> {
 
+    interface ProductQuantity {
+        Long getProductId();
+
+        long getQuantityMilli();
+    }
+
+    @Override
+    @EntityGraph(attributePaths = "product")
+    Optional<Storage> findById(Long id);
 
     Optional<Storage> findStorageByProduct(Product product);
 
-    List<Storage> findAllByProduct_Material(Product.materialType productMaterial);
+    @Query("SELECT s.product.id AS productId, s.quantityMilli AS quantityMilli FROM Storage s")
+    List<ProductQuantity> findAllQuantities();
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.StorageView(s.id, p.id, p.productCode, p.material, s.quantityMilli)
+            FROM Storage s JOIN s.product p
+            """)
+    List<StorageView> findAllViews();
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.StorageView(s.id, p.id, p.productCode, p.material, s.quantityMilli)
+            FROM Storage s JOIN s.product p
+            WHERE p.material = :material
+            """)
+    List<StorageView> findViewsByMaterial(Product.materialType material);
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.StorageView(s.id, p.id, p.productCode, p.material, s.quantityMilli)
+            FROM Storage s JOIN s.product p
+            WHERE p.productCode = :productCode
+            """)
+    List<StorageView> findViewsByProductCode(String productCode);
+
+    @Query("""
+            SELECT new gr.ckaraiskos.candlefactory.candle.dto.StorageView(s.id, p.id, p.productCode, p.material, s.quantityMilli)
+            FROM Storage s JOIN s.product p
+            WHERE p.id = :productId
+            """)
+    Optional<StorageView> findViewByProductId(Long productId);
 
-    List<Storage> findAllByProduct_ProductCode(String productProductCode);
+    @Modifying
+    @Query("""
+            UPDATE Storage s
+            SET s.quantityMilli = s.quantityMilli + :quantityMilli,
+                s.version = s.version + 1
+            WHERE s.product.id = :productId
+            """)
+    int increaseQuantity(Long productId, long quantityMilli);
 }
@@ -0,0 +1,16 @@
+package gr.ckaraiskos.candlefactory.candle.repository;
+
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.WaxPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaxPriceRepository extends JpaRepository<WaxPrice, Long> {
+
+    Optional<WaxPrice> findByMaterialAndEffectiveFrom(Product.materialType material, LocalDate effectiveFrom);
+
+    List<WaxPrice> findAllByOrderByMaterialAscEffectiveFromAsc();
+}
@@ -2,6 +2,7 @@ package gr.ckaraiskos.candlefactory.candle.repository;
 
 import gr.ckaraiskos.candlefactory.candle.entity.Worker;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,4 +22,7 @@ public interface WorkerRepository extends JpaRepository<Worker, Long> {
     Optional<Worker> findWorkerById(Long id);
 
     void deleteWorkerById(Long id);
+
+    @Query("SELECT w.id FROM Worker w")
+    List<Long> findAllIds();
 }
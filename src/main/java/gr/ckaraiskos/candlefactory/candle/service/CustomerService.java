@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Slf4j
@@ -42,6 +43,13 @@ public class CustomerService {
         return  ResponseEntity.noContent().build();
     }
 
+    public ResponseEntity<Void> registerPayment(Long customerId, BigDecimal amount) throws EntityNotFoundException {
+        log.info("Registering payment for customer with id: {}.", customerId);
+        customerComponent.tryRegisterPayment(customerId, amount);
+
+        return ResponseEntity.noContent().build();
+    }
+
     public ResponseEntity<List<Customer>> allCustomers() throws EntityNotFoundException {
         log.info("Retrieving all customers.");
 
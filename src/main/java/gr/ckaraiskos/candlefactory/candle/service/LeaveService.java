@@ -1,6 +1,10 @@
 package gr.ckaraiskos.candlefactory.candle.service;
 
+import gr.ckaraiskos.candlefactory.candle.component.IdempotencyStore;
+import gr.ckaraiskos.candlefactory.candle.component.LeaveSummaryComponent;
 import gr.ckaraiskos.candlefactory.candle.dto.LeaveDto;
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveSummaryView;
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveView;
 import gr.ckaraiskos.candlefactory.candle.entity.Leave;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
 import gr.ckaraiskos.candlefactory.candle.exception.LeaveComponentFailureException;
@@ -18,11 +22,13 @@ import java.util.List;
 public class LeaveService {
 
     private final LeaveRules leaveRules;
+    private final LeaveSummaryComponent leaveSummaryComponent;
+    private final IdempotencyStore idempotencyStore;
 
-    public ResponseEntity<Leave> addLeave(LeaveDto requestedLeave) throws EntityNotFoundException, LeaveComponentFailureException {
+    public ResponseEntity<Leave> addLeave(LeaveDto requestedLeave, String idempotencyKey) throws EntityNotFoundException, LeaveComponentFailureException {
         log.info("Adding leave.");
 
-        Leave newLeave = leaveRules.leaveAddition(requestedLeave);
+        Leave newLeave = idempotencyStore.execute("leave.add", idempotencyKey, requestedLeave, () -> leaveRules.leaveAddition(requestedLeave));
         log.info("Successfully added leave.");
 
         return ResponseEntity.ok(newLeave);
@@ -37,6 +43,15 @@ public class LeaveService {
         return ResponseEntity.ok(updatedLeave);
     }
 
+    public ResponseEntity<List<Leave>> planLeaves(List<LeaveDto> plan) throws EntityNotFoundException, LeaveComponentFailureException {
+        log.info("Applying plan of {} leaves.", plan.size());
+
+        List<Leave> leaves = leaveRules.leavePlan(plan);
+        log.info("Successfully applied plan of leaves.");
+
+        return ResponseEntity.ok(leaves);
+    }
+
     public ResponseEntity<Void> deleteLeave(LeaveDto deletingLeave) throws LeaveComponentFailureException {
         log.info("Deleting leave with id: {}.", deletingLeave.getLeaveId());
 
@@ -46,21 +61,41 @@ public class LeaveService {
         return  ResponseEntity.noContent().build();
     }
 
-    public ResponseEntity<List<Leave>> workerLeaves(Long workerId) throws LeaveComponentFailureException {
+    public ResponseEntity<List<LeaveView>> workerLeaves(Long workerId) throws LeaveComponentFailureException {
         log.info("Getting leaves for worker");
 
-        List<Leave> leaves = leaveRules.leavesFind(workerId);
+        List<LeaveView> leaves = leaveRules.leavesFind(workerId);
         log.info("Successfully getting leaves for worker.");
 
         return ResponseEntity.ok(leaves);
     }
 
-    public ResponseEntity<List<Leave>> daysLeaves() throws LeaveComponentFailureException {
+    public ResponseEntity<List<LeaveView>> daysLeaves() throws LeaveComponentFailureException {
         log.info("Getting leaves for the day");
 
-        List<Leave> leaves = leaveRules.leavesDayFind();
+        List<LeaveView> leaves = leaveRules.leavesDayFind();
         log.info("Successfully getting leaves for the day.");
 
         return ResponseEntity.ok(leaves);
     }
+
+    public ResponseEntity<List<LeaveSummaryView>> yearSummary(int year) {
+        log.info("Getting days of leave of year {}.", year);
+
+        List<LeaveSummaryView> summary = leaveSummaryComponent.tryGetLeaveDays(year).entrySet().stream()
+                .map(worker -> new LeaveSummaryView(worker.getKey(), year, worker.getValue()))
+                .toList();
+        log.info("Successfully getting days of leave of year {}.", year);
+
+        return ResponseEntity.ok(summary);
+    }
+
+    public ResponseEntity<LeaveSummaryView> workerYearSummary(Long workerId, int year) {
+        log.info("Getting days of leave of year {} for worker.", year);
+
+        int days = leaveSummaryComponent.tryGetLeaveDays(year).getOrDefault(workerId, 0);
+        log.info("Successfully getting days of leave of year {} for worker.", year);
+
+        return ResponseEntity.ok(new LeaveSummaryView(workerId, year, days));
+    }
 }
@@ -1,10 +1,16 @@
 package gr.ckaraiskos.candlefactory.candle.service;
 
+import gr.ckaraiskos.candlefactory.candle.component.ConflictRetryExecutor;
+import gr.ckaraiskos.candlefactory.candle.component.IdempotencyStore;
 import gr.ckaraiskos.candlefactory.candle.component.ProductionComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.KeysetPage;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
 import gr.ckaraiskos.candlefactory.candle.dto.ProductionDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionView;
 import gr.ckaraiskos.candlefactory.candle.entity.Production;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -19,52 +25,61 @@ import java.util.List;
 public class ProductionService {
 
     private final ProductionComponent productionComponent;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final IdempotencyStore idempotencyStore;
 
-    public Production newProduction(ProductionDto productionDto) throws EntityNotFoundException, EntityAlreadyExistsException {
+    public Production newProduction(ProductionDto productionDto, String idempotencyKey) throws EntityNotFoundException, EntityAlreadyExistsException {
         log.info("Starting add production procedure");
 
-        return productionComponent.tryAddProduction(productionDto);
+        return idempotencyStore.execute("production.add", idempotencyKey, productionDto,
+                () -> conflictRetryExecutor.execute("production.add", () -> productionComponent.tryAddProduction(productionDto)));
     }
 
-    public Production updateProduction(ProductionDto productionDto) throws EntityNotFoundException {
+    public Production updateProduction(ProductionDto productionDto) throws EntityNotFoundException, StorageViolationException {
         log.info("Starting update production procedure");
 
-        return productionComponent.tryUpdateProduction(productionDto);
+        return conflictRetryExecutor.execute("production.update", () -> productionComponent.tryUpdateProduction(productionDto));
     }
 
-    public void removeProduction(Long id) throws EntityNotFoundException, DataIntegrityViolationException {
+    public void removeProduction(Long id) throws EntityNotFoundException, StorageViolationException, DataIntegrityViolationException {
         log.info("Starting remove production procedure");
 
-        productionComponent.tryRemoveProduction(id);
+        conflictRetryExecutor.run("production.remove", () -> productionComponent.tryRemoveProduction(id));
     }
 
-    public List<Production> getAll() {
+    public List<ProductionView> getAll() {
         log.info("Starting getAll production procedure");
 
         return productionComponent.tryGetAllProductions();
     }
 
-    public List<Production> getByProductId(Long productId) throws EntityNotFoundException {
+    public List<ProductionView> getByProductId(Long productId) throws EntityNotFoundException {
         log.info("Starting getByProductId production procedure");
 
         return productionComponent.tryGetProductionByProductId(productId);
     }
 
-    public List<Production> getByDate(LocalDate date) {
+    public List<ProductionView> getByDate(LocalDate date) {
         log.info("Starting getByDate production procedure");
 
         return productionComponent.tryGetAllProductionsByDate(date);
     }
 
-    public Production getByDateAndProductId(LocalDate date, Long productId) throws EntityNotFoundException {
+    public ProductionView getByDateAndProductId(LocalDate date, Long productId) throws EntityNotFoundException {
         log.info("Starting getByDateAndProductId production procedure");
 
         return productionComponent.tryGetProductionByDateAndProductId(date, productId);
     }
 
-    public List<Production> getByDateRange(LocalDate fromDate, LocalDate toDate) {
+    public KeysetPage<ProductionView> getByDateRange(LocalDate fromDate, LocalDate toDate, String cursor, int size) {
         log.info("Starting getByDateRange production procedure");
 
-        return productionComponent.tryGetAllInDateRange(fromDate, toDate);
+        return productionComponent.tryGetAllInDateRange(fromDate, toDate, cursor, size);
+    }
+
+    public List<ProductTotalView> getTotalsByDateRange(LocalDate fromDate, LocalDate toDate) {
+        log.info("Starting getTotalsByDateRange production procedure");
+
+        return productionComponent.tryGetTotalsInDateRange(fromDate, toDate);
     }
 }
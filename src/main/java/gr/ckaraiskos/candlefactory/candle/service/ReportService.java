@@ -0,0 +1,43 @@
+package gr.ckaraiskos.candlefactory.candle.service;
+
+import gr.ckaraiskos.candlefactory.candle.component.ReportComponent;
+import gr.ckaraiskos.candlefactory.candle.component.RollupComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.DailyRollupView;
+import gr.ckaraiskos.candlefactory.candle.dto.SalesReportRow;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleReportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportService {
+
+    private final ReportComponent reportComponent;
+    private final RollupComponent rollupComponent;
+
+    public List<SalesReportRow> salesReport(LocalDate fromDate, LocalDate toDate,
+                                            SaleReportRepository.dimensionType groupBy,
+                                            SaleReportRepository.periodType period) throws InvalidReportRangeException {
+        log.info("Start sales report procedure.");
+
+        return reportComponent.tryBuildSalesReport(fromDate, toDate, groupBy, period);
+    }
+
+    public List<DailyRollupView> dailyRollups(LocalDate fromDate, LocalDate toDate, Long productId) throws InvalidReportRangeException {
+        log.info("Start daily rollups procedure.");
+
+        return rollupComponent.tryGetRollups(fromDate, toDate, productId);
+    }
+
+    public int rebuildDailyRollups(LocalDate fromDate, LocalDate toDate) throws InvalidReportRangeException {
+        log.info("Start daily rollups rebuild procedure.");
+
+        return rollupComponent.tryRebuild(fromDate, toDate);
+    }
+}
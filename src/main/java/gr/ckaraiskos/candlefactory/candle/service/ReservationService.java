@@ -0,0 +1,51 @@
+package gr.ckaraiskos.candlefactory.candle.service;
+
+import gr.ckaraiskos.candlefactory.candle.component.ConflictRetryExecutor;
+import gr.ckaraiskos.candlefactory.candle.component.ReservationComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReservationView;
+import gr.ckaraiskos.candlefactory.candle.entity.Reservation;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationService {
+
+    private final ReservationComponent reservationComponent;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+
+    public Reservation newReservation(ReservationDto reservationDto) throws EntityNotFoundException, StorageViolationException {
+        log.info("Start reservation procedure.");
+
+        return reservationComponent.tryReserve(reservationDto);
+    }
+
+    public Sale confirmReservation(Long reservationId, LocalDate date, BigDecimal totalCost) throws EntityNotFoundException {
+        log.info("Start reservation confirm procedure.");
+
+        return conflictRetryExecutor.execute("reservation.confirm",
+                () -> reservationComponent.tryConfirmReservation(reservationId, date, totalCost));
+    }
+
+    public void releaseReservation(Long reservationId) throws EntityNotFoundException {
+        log.info("Start reservation release procedure.");
+
+        reservationComponent.tryReleaseReservation(reservationId);
+    }
+
+    public List<ReservationView> getAll() {
+        log.info("Start getAll reservations procedure.");
+
+        return reservationComponent.tryGetAllReservations();
+    }
+}
@@ -0,0 +1,47 @@
+package gr.ckaraiskos.candlefactory.candle.service;
+
+import gr.ckaraiskos.candlefactory.candle.component.ReturnedWaxComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxBatchResultDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxView;
+import gr.ckaraiskos.candlefactory.candle.entity.ReturnedWax;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.InvalidReportRangeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReturnedWaxService {
+
+    private final ReturnedWaxComponent returnedWaxComponent;
+
+    public ReturnedWax newReturnedWax(ReturnedWaxDto returnedWaxDto) throws EntityNotFoundException {
+        log.info("Start adding procedure.");
+
+        return returnedWaxComponent.tryAddReturnedWax(returnedWaxDto);
+    }
+
+    public List<ReturnedWaxBatchResultDto> newReturnedWaxBatch(List<ReturnedWaxDto> returnedWaxDtos) {
+        log.info("Start batch adding procedure.");
+
+        return returnedWaxComponent.tryAddReturnedWaxBatch(returnedWaxDtos);
+    }
+
+    public void deleteReturnedWaxById(Long returnedWaxId) throws EntityNotFoundException {
+        log.info("Start delete procedure.");
+
+        returnedWaxComponent.tryDeleteReturnedWax(returnedWaxId);
+    }
+
+    public List<ReturnedWaxView> getAllByCustomerId(Long customerId, LocalDate fromDate, LocalDate toDate) throws EntityNotFoundException, InvalidReportRangeException {
+        log.info("Start getAllByCustomerId procedure.");
+
+        return returnedWaxComponent.tryGetReturnedWaxByCustomer(customerId, fromDate, toDate);
+    }
+}
@@ -1,16 +1,26 @@
 package gr.ckaraiskos.candlefactory.candle.service;
 
+import gr.ckaraiskos.candlefactory.candle.component.ConflictRetryExecutor;
+import gr.ckaraiskos.candlefactory.candle.component.IdempotencyStore;
 import gr.ckaraiskos.candlefactory.candle.component.SaleComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.KeysetPage;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductTotalView;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleBatchResultDto;
 import gr.ckaraiskos.candlefactory.candle.dto.SaleDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleSearchDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleView;
 import gr.ckaraiskos.candlefactory.candle.entity.Sale;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
 import gr.ckaraiskos.candlefactory.candle.exception.StorageViolationException;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -20,70 +30,103 @@ import java.util.List;
 public class SaleService {
 
     private final SaleComponent saleComponent;
+    private final IdempotencyStore idempotencyStore;
+    private final ConflictRetryExecutor conflictRetryExecutor;
 
-    public Sale newSale(SaleDto saleDto) throws EntityAlreadyExistsException, EntityNotFoundException, StorageViolationException {
+    public Sale newSale(SaleDto saleDto, String idempotencyKey) throws EntityAlreadyExistsException, EntityNotFoundException, StorageViolationException {
         log.info("Start adding procedure.");
 
-        return saleComponent.tryAddSale(saleDto);
+        return idempotencyStore.execute("sale.add", idempotencyKey, saleDto,
+                () -> conflictRetryExecutor.execute("sale.add", () -> saleComponent.tryAddSale(saleDto)));
+    }
+
+    public List<SaleBatchResultDto> newSalesBatch(List<SaleDto> saleDtos) throws StorageViolationException {
+        log.info("Start batch adding procedure.");
+
+        return conflictRetryExecutor.execute("sale.batch", () -> saleComponent.tryAddSalesBatch(saleDtos));
     }
 
     public Sale updateSale(SaleDto saleDto) throws EntityNotFoundException, StorageViolationException {
         log.info("Start update procedure.");
 
-        return saleComponent.tryUpdateSale(saleDto);
+        return conflictRetryExecutor.execute("sale.update", () -> saleComponent.tryUpdateSale(saleDto));
     }
 
     public void deleteSaleById(Long saleId) throws EntityNotFoundException, DataIntegrityViolationException {
         log.info("Start delete procedure.");
 
-        saleComponent.tryDeleteSale(saleId);
+        conflictRetryExecutor.run("sale.delete", () -> saleComponent.tryDeleteSale(saleId));
     }
 
-    public List<Sale> getAll() {
+    public KeysetPage<SaleView> getAll(String cursor, int size) {
         log.info("Start getAll sales procedure.");
 
-        return saleComponent.tryGetAllSales();
+        return saleComponent.tryGetAllSales(cursor, size);
     }
 
-    public List<Sale> getAllByCustomerId(Long customerId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getAllByCustomerId(Long customerId, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getAllByCustomerId procedure.");
 
-        return saleComponent.tryGetAllSalesByCustomerId(customerId);
+        return saleComponent.tryGetAllSalesByCustomerId(customerId, cursor, size);
     }
 
-    public List<Sale> getAllByProductId(Long productId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getAllByProductId(Long productId, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getAllByProductId procedure.");
 
-        return saleComponent.tryGetAllSalesByProductId(productId);
+        return saleComponent.tryGetAllSalesByProductId(productId, cursor, size);
     }
 
-    public List<Sale> getAllByDate(LocalDate date) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getAllByDate(LocalDate date, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getAllByDate procedure.");
 
-        return saleComponent.tryGetAllSalesByDate(date);
+        return saleComponent.tryGetAllSalesByDate(date, cursor, size);
     }
 
-    public List<Sale> getAllByCustomerIdAndProductId(Long customerId, Long productId) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getAllByCustomerIdAndProductId(Long customerId, Long productId, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getAllByCustomerIdAndProductId procedure.");
 
-        return saleComponent.tryGetAllSalesByCustomerIdAndProductId(customerId, productId);
+        return saleComponent.tryGetAllSalesByCustomerIdAndProductId(customerId, productId, cursor, size);
     }
 
-    public List<Sale> getAllByCustomerIdAndDate(Long customerId, LocalDate date) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getAllByCustomerIdAndDate(Long customerId, LocalDate date, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getAllByCustomerIdAndDate procedure.");
 
-        return saleComponent.tryGetAllSalesByDateAndCustomerId(date, customerId);
+        return saleComponent.tryGetAllSalesByDateAndCustomerId(date, customerId, cursor, size);
     }
 
-    public List<Sale> getAllByProductIdAndDate(Long productId, LocalDate date) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getAllByProductIdAndDate(Long productId, LocalDate date, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getAllByProductIdAndDate procedure.");
 
-        return saleComponent.tryGetAllSalesByDateAndProductId(date, productId);
+        return saleComponent.tryGetAllSalesByDateAndProductId(date, productId, cursor, size);
     }
 
-    public List<Sale> getByAll(Long customerId, Long productId, LocalDate date) throws EntityNotFoundException {
+    public KeysetPage<SaleView> getByAll(Long customerId, Long productId, LocalDate date, String cursor, int size) throws EntityNotFoundException {
         log.info("Start getByAll procedure.");
 
-        return saleComponent.tryGetByAll(customerId, productId, date);
+        return saleComponent.tryGetByAll(customerId, productId, date, cursor, size);
+    }
+
+    public KeysetPage<SaleView> getAllInDateRange(LocalDate fromDate, LocalDate toDate, String cursor, int size) {
+        log.info("Start getAllInDateRange sales procedure.");
+
+        return saleComponent.tryGetAllSalesInDateRange(fromDate, toDate, cursor, size);
+    }
+
+    public List<ProductTotalView> getTotalsInDateRange(LocalDate fromDate, LocalDate toDate) {
+        log.info("Start getTotalsInDateRange sales procedure.");
+
+        return saleComponent.tryGetSaleTotalsInDateRange(fromDate, toDate);
+    }
+
+    public KeysetPage<SaleView> searchSales(SaleSearchDto search, SaleSearchRepository.sortType sort, String cursor, int size) throws EntityNotFoundException {
+        log.info("Start search sales procedure.");
+
+        return saleComponent.trySearchSales(search, sort, cursor, size);
+    }
+
+    public void streamSales(Long customerId, Long productId, LocalDate date, OutputStream outputStream) throws IOException {
+        log.info("Start streaming procedure.");
+
+        saleComponent.tryStreamSales(customerId, productId, date, outputStream);
     }
 }
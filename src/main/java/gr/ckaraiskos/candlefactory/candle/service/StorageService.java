@@ -2,15 +2,18 @@ package gr.ckaraiskos.candlefactory.candle.service;
 
 import gr.ckaraiskos.candlefactory.candle.component.StorageComponent;
 import gr.ckaraiskos.candlefactory.candle.dto.StorageDto;
+import gr.ckaraiskos.candlefactory.candle.dto.StorageView;
 import gr.ckaraiskos.candlefactory.candle.entity.Product;
 import gr.ckaraiskos.candlefactory.candle.entity.Storage;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import gr.ckaraiskos.candlefactory.candle.exception.FailedDeletionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Slf4j
@@ -26,37 +29,37 @@ public class StorageService {
         return storageComponent.tryAddStorage(storageDto);
     }
 
-    public Storage updateStorage(Long id, double quantity) throws EntityNotFoundException {
+    public Storage updateStorage(Long id, BigDecimal quantity) throws EntityNotFoundException {
         log.info("Start edit procedure.");
 
         return  storageComponent.tryUpdateStorage(id, quantity);
     }
 
-    public void deleteStorage(Long id) throws EntityNotFoundException, DataIntegrityViolationException {
+    public void deleteStorage(Long id) throws EntityNotFoundException, FailedDeletionException, DataIntegrityViolationException {
         log.info("Start delete procedure.");
 
         storageComponent.tryDeleteStorage(id);
     }
 
-    public List<Storage> getAll() {
+    public List<StorageView> getAll() {
         log.info("Start getting all storages procedure.");
 
         return storageComponent.tryGetAllStorages();
     }
 
-    public List<Storage> getByMaterial(Product.materialType material) {
+    public List<StorageView> getByMaterial(Product.materialType material) {
         log.info("Start getting storages by material procedure.");
 
         return storageComponent.tryGetAllStoragesByMaterial(material);
     }
 
-    public List<Storage> getByProductCode(String productCode) {
+    public List<StorageView> getByProductCode(String productCode) {
         log.info("Start getting storages by product code procedure.");
 
         return storageComponent.tryGetAllStoragesByProductCode(productCode);
     }
 
-    public Storage getStorageByProductId(Long id) throws EntityNotFoundException {
+    public StorageView getStorageByProductId(Long id) throws EntityNotFoundException {
         log.info("Start getting storage by product id procedure.");
 
         return storageComponent.tryGetStorageByProductId(id);
@@ -0,0 +1,37 @@
+package gr.ckaraiskos.candlefactory.candle.service;
+
+import gr.ckaraiskos.candlefactory.candle.component.WaxPriceComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.WaxPriceDto;
+import gr.ckaraiskos.candlefactory.candle.entity.WaxPrice;
+import gr.ckaraiskos.candlefactory.candle.exception.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaxPriceService {
+
+    private final WaxPriceComponent waxPriceComponent;
+
+    public WaxPrice newWaxPrice(WaxPriceDto waxPriceDto) {
+        log.info("Start adding procedure.");
+
+        return waxPriceComponent.tryAddWaxPrice(waxPriceDto);
+    }
+
+    public void deleteWaxPriceById(Long waxPriceId) throws EntityNotFoundException {
+        log.info("Start delete procedure.");
+
+        waxPriceComponent.tryDeleteWaxPrice(waxPriceId);
+    }
+
+    public List<WaxPrice> getAll() {
+        log.info("Start getAll wax prices procedure.");
+
+        return waxPriceComponent.tryGetAllWaxPrices();
+    }
+}
@@ -1,5 +1,7 @@
 package gr.ckaraiskos.candlefactory.candle.service;
 
+import gr.ckaraiskos.candlefactory.candle.component.LeaveIndex;
+import gr.ckaraiskos.candlefactory.candle.component.LeaveSummaryComponent;
 import gr.ckaraiskos.candlefactory.candle.dto.WorkerDto;
 import gr.ckaraiskos.candlefactory.candle.entity.Worker;
 import gr.ckaraiskos.candlefactory.candle.exception.EntityAlreadyExistsException;
@@ -8,6 +10,7 @@ import gr.ckaraiskos.candlefactory.candle.repository.LeaveRepository;
 import gr.ckaraiskos.candlefactory.candle.repository.WorkerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,9 +25,12 @@ public class WorkerService {
 
     private final WorkerRepository workerRepository;
     private final LeaveRepository leaveRepository;
+    private final LeaveIndex leaveIndex;
 
     @Transactional
     public Worker createWorker(WorkerDto newWorkerDto) throws EntityAlreadyExistsException {
+        // Ο αριθμός των εργαζομένων μετράει στον κανόνα των αδειών
+        leaveIndex.lockChanges();
 
         Optional<Worker> possibleNewWorker = workerRepository.findWorkerByFirstNameAndLastNameAndPhoneNumber(newWorkerDto.getFirstName(), newWorkerDto.getLastName(), newWorkerDto.getPhoneNumber());
 
@@ -39,6 +45,7 @@ public class WorkerService {
                     .build();
 
             workerRepository.save(newWorker);
+            leaveIndex.recordWorker(newWorker.getId());
 
             return newWorker;
         }
@@ -133,14 +140,17 @@ public class WorkerService {
     }
 
 
+    @CacheEvict(cacheNames = LeaveSummaryComponent.LEAVE_DAYS_CACHE, allEntries = true)
     @Transactional
     public ResponseEntity<Void> deleteWorker(Long workerId) {
+        leaveIndex.lockChanges();
 
         log.info("Deleting all leaves of worker with id {}.", workerId);
         leaveRepository.deleteByWorkerId(workerId);
 
         log.info("Deleting worker.");
         workerRepository.deleteWorkerById(workerId);
+        leaveIndex.removeWorker(workerId);
 
         log.info("Checking deletion.");
         Optional<Worker> deletionCheck = workerRepository.findWorkerById(workerId);
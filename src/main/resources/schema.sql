@@ -0,0 +1,8 @@
+-- The id_generator table of the @TableGenerator ids. It is created here, before Hibernate,
+-- because ddl-auto=update would insert every segment's first row twice when it creates the table itself.
+-- IdGeneratorAligner adds the rows.
+CREATE TABLE IF NOT EXISTS id_generator (
+    entity_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (entity_name)
+);
@@ -0,0 +1,113 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import gr.ckaraiskos.candlefactory.candle.component.LeaveRules;
+import gr.ckaraiskos.candlefactory.candle.dto.LeaveDto;
+import gr.ckaraiskos.candlefactory.candle.dto.WorkerDto;
+import gr.ckaraiskos.candlefactory.candle.exception.LeaveComponentFailureException;
+import gr.ckaraiskos.candlefactory.candle.service.WorkerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A leave request that arrives while another one is validated but not committed must be checked against it:
+ * two workers of several on leave at the same time break the absence rule, so the second request is declined.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent_leave;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "candle.outbox.file.path=target/test-outbox/concurrent-leave.ndjson"
+})
+@ActiveProfiles("george")
+class ConcurrentLeaveTest {
+
+    @Autowired
+    private LeaveRules leaveRules;
+    @Autowired
+    private WorkerService workerService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void leaveAdditionWaitsForAnUncommittedLeave() throws Exception {
+        List<Long> workerIds = workers("Addition");
+        LocalDate start = LocalDate.of(2026, 7, 1);
+
+        assertDeclinedAfterCommitOf(leave(workerIds.get(0), start), () -> leaveRules.leaveAddition(leave(workerIds.get(1), start)));
+    }
+
+    @Test
+    void leavePlanWaitsForAnUncommittedLeave() throws Exception {
+        List<Long> workerIds = workers("Plan");
+        LocalDate start = LocalDate.of(2026, 8, 1);
+
+        assertDeclinedAfterCommitOf(leave(workerIds.get(0), start), () -> leaveRules.leavePlan(List.of(leave(workerIds.get(1), start))));
+    }
+
+    private void assertDeclinedAfterCommitOf(LeaveDto firstLeave, Callable<?> secondRequest) throws Exception {
+        CountDownLatch validated = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                leaveRules.leaveAddition(firstLeave);
+                validated.countDown();
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertThat(validated.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return secondRequest.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertThat(second).as("second request while the first leave is not committed").isNotDone();
+
+        finish.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(LeaveComponentFailureException.class);
+    }
+
+    private List<Long> workers(String lastName) throws Exception {
+        Long[] workerIds = new Long[3];
+        for (int i = 0; i < workerIds.length; i++) {
+            WorkerDto worker = new WorkerDto();
+            worker.setFirstName("Worker" + i);
+            worker.setLastName(lastName);
+            worker.setPhoneNumber("690000000" + i);
+            workerIds[i] = workerService.createWorker(worker).getId();
+        }
+        return List.of(workerIds);
+    }
+
+    private static LeaveDto leave(Long workerId, LocalDate start) {
+        LeaveDto leave = new LeaveDto();
+        leave.setWorkerId(workerId);
+        leave.setStartDate(start);
+        leave.setEndDate(start.plusDays(4));
+        return leave;
+    }
+}
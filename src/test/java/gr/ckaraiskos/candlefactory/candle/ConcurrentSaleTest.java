@@ -0,0 +1,111 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import gr.ckaraiskos.candlefactory.candle.dto.CustomerDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionDto;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.service.CustomerService;
+import gr.ckaraiskos.candlefactory.candle.service.ProductService;
+import gr.ckaraiskos.candlefactory.candle.service.ProductionService;
+import gr.ckaraiskos.candlefactory.candle.service.StorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent sales over HTTP with the shipped pool settings. Every request holds a connection for its transaction
+ * and may need a second one for a new block of ids, so the request threads must never take the whole pool.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent_sale;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "candle.outbox.file.path=target/test-outbox/concurrent-sale.ndjson"
+})
+@ActiveProfiles("george")
+class ConcurrentSaleTest {
+
+    private static final int THREADS = 16;
+    private static final int SALES = 20;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ProductionService productionService;
+    @Autowired
+    private StorageService storageService;
+
+    @Test
+    void concurrentSalesNeverRunOutOfConnections() throws Exception {
+        ProductDto product = new ProductDto();
+        product.setProductCode("CS1");
+        product.setMaterial(Product.materialType.Pure);
+        product.setByWeight(true);
+        product.setPrice(new BigDecimal("2.50"));
+        Long productId = productService.newProduct(product).getId();
+
+        CustomerDto customer = new CustomerDto();
+        customer.setCustomerName("Concurrent sale");
+        customer.setCustomerPhone("6900000000");
+        Long customerId = customerService.newCustomer(customer).getBody().getId();
+
+        ProductionDto production = new ProductionDto();
+        production.setDate(LocalDate.of(2026, 3, 1));
+        production.setProductId(productId);
+        production.setQuantity(new BigDecimal("1000"));
+        productionService.newProduction(production, null);
+
+        String body = """
+                {"customerId": %d, "productId": %d, "date": "2026-03-02", "quantity": 60}
+                """.formatted(customerId, productId);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/sale/add"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < SALES; i++) {
+                responses.add(executor.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+            }
+            for (Future<Integer> response : responses) {
+                statuses.add(response.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Map<Integer, Long> byStatus = statuses.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        // 16 x 60 = 960 χωράνε στα 1000, οι υπόλοιπες 4 απορρίπτονται για έλλειψη αποθέματος
+        assertThat(byStatus).as("responses by status").containsOnly(Map.entry(200, 16L), Map.entry(400, 4L));
+        assertThat(storageService.getStorageByProductId(productId).quantity()).isEqualByComparingTo("40");
+    }
+}
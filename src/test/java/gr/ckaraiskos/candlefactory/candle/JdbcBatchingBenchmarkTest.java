@@ -0,0 +1,106 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import gr.ckaraiskos.candlefactory.candle.dto.CustomerDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductDto;
+import gr.ckaraiskos.candlefactory.candle.entity.Customer;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.entity.Sale;
+import gr.ckaraiskos.candlefactory.candle.service.CustomerService;
+import gr.ckaraiskos.candlefactory.candle.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts the same sales once one statement at a time and once in JDBC batches (the pooled-lo table ids make
+ * batching possible) and compares round trips and time. Runs on H2; for MySQL run it with spring.datasource.*
+ * pointing to a MySQL database with rewriteBatchedStatements=true, as in application.properties.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jdbc_batching;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.session.events.auto=gr.ckaraiskos.candlefactory.candle.RoundTripCounter",
+        "spring.jpa.show-sql=false",
+        "candle.outbox.file.path=target/test-outbox/jdbc-batching.ndjson"
+})
+@ActiveProfiles("george")
+class JdbcBatchingBenchmarkTest {
+
+    private static final int SALES = 500;
+    private static final int BATCH_SIZE = 50; // hibernate.jdbc.batch_size
+
+    // Κάθε μπλοκ ids (allocationSize 50) είναι ένα SELECT και ένα UPDATE στο id_generator
+    private static final long ID_BLOCK_STATEMENTS = SALES / 50 * 2;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void batchedInsertsNeedOneRoundTripPerBatch() {
+        ProductDto product = new ProductDto();
+        product.setProductCode("JB1");
+        product.setMaterial(Product.materialType.Pure);
+        product.setByWeight(true);
+        product.setPrice(new BigDecimal("2.50"));
+        Long productId = productService.newProduct(product).getId();
+
+        CustomerDto customer = new CustomerDto();
+        customer.setCustomerName("Batching");
+        customer.setCustomerPhone("6911111111");
+        Long customerId = customerService.newCustomer(customer).getBody().getId();
+
+        // Ζέσταμα, ώστε οι χρόνοι να μη μετράνε το JIT
+        insertSales(customerId, productId, 1);
+        insertSales(customerId, productId, BATCH_SIZE);
+
+        long start = System.nanoTime();
+        long single = RoundTripCounter.count(() -> insertSales(customerId, productId, 1));
+        long singleMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        long batched = RoundTripCounter.count(() -> insertSales(customerId, productId, BATCH_SIZE));
+        long batchedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Inserted {} sales: {} round trips in {} ms one by one, {} round trips in {} ms in batches of {}.",
+                SALES, single, singleMillis, batched, batchedMillis, BATCH_SIZE);
+
+        assertThat(single).as("round trips one by one").isGreaterThanOrEqualTo(SALES);
+        assertThat(batched).as("round trips in batches of %d", BATCH_SIZE).isLessThanOrEqualTo(SALES / BATCH_SIZE + ID_BLOCK_STATEMENTS);
+    }
+
+    private void insertSales(Long customerId, Long productId, int batchSize) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+            Customer customer = entityManager.getReference(Customer.class, customerId);
+            Product product = entityManager.getReference(Product.class, productId);
+            for (int i = 0; i < SALES; i++) {
+                entityManager.persist(Sale.builder()
+                        .customer(customer)
+                        .productType(product)
+                        .date(LocalDate.of(2026, 4, 1))
+                        .quantityMilli(1_000 + i)
+                        .cost(new BigDecimal("2.50"))
+                        .build());
+            }
+        });
+    }
+}
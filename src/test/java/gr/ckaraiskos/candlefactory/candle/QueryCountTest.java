@@ -0,0 +1,158 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import gr.ckaraiskos.candlefactory.candle.dto.CustomerDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ReturnedWaxDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleDto;
+import gr.ckaraiskos.candlefactory.candle.dto.SaleSearchDto;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.repository.SaleSearchRepository;
+import gr.ckaraiskos.candlefactory.candle.service.CustomerService;
+import gr.ckaraiskos.candlefactory.candle.service.ProductService;
+import gr.ckaraiskos.candlefactory.candle.service.ProductionService;
+import gr.ckaraiskos.candlefactory.candle.service.ReturnedWaxService;
+import gr.ckaraiskos.candlefactory.candle.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the read and batch paths against N+1 regressions: the number of statements must not grow with the number of rows.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=gr.ckaraiskos.candlefactory.candle.QueryCounter",
+        "spring.jpa.show-sql=false",
+        "candle.outbox.file.path=target/test-outbox/events.ndjson"
+})
+@ActiveProfiles("george")
+class QueryCountTest {
+
+    private static final int FEW = 5;
+    private static final int MANY = 45;
+
+    // Ένα νέο μπλοκ ids από το id_generator (SELECT + UPDATE) ανά πίνακα που γράφεται: sale και outbox_event, ή returned_wax
+    private static final long ID_BLOCK_FETCHES = 4;
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ProductionService productionService;
+    @Autowired
+    private SaleService saleService;
+    @Autowired
+    private ReturnedWaxService returnedWaxService;
+
+    private Long productId;
+    private Long customerId;
+    private LocalDate date;
+
+    @BeforeEach
+    void seed() {
+        int n = SEQUENCE.incrementAndGet();
+        date = LocalDate.of(2026, 1, 1).plusDays(n);
+
+        ProductDto product = new ProductDto();
+        product.setProductCode("QC" + n);
+        product.setMaterial(Product.materialType.Pure);
+        product.setByWeight(true);
+        product.setPrice(new BigDecimal("2.50"));
+        productId = productService.newProduct(product).getId();
+
+        CustomerDto customer = new CustomerDto();
+        customer.setCustomerName("Query count " + n);
+        customer.setCustomerPhone("69" + n);
+        customerId = customerService.newCustomer(customer).getBody().getId();
+
+        ProductionDto production = new ProductionDto();
+        production.setDate(date);
+        production.setProductId(productId);
+        production.setQuantity(new BigDecimal("1000"));
+        productionService.newProduction(production, null);
+    }
+
+    @Test
+    void saleListingsRunTheSameStatementsForAnyPageSize() {
+        saleService.newSalesBatch(sales(MANY));
+
+        Map<String, IntConsumer> listings = Map.of(
+                "getAll", size -> saleService.getAll(null, size),
+                "getCustomer", size -> saleService.getAllByCustomerId(customerId, null, size),
+                "getProduct", size -> saleService.getAllByProductId(productId, null, size),
+                "getDate", size -> saleService.getAllByDate(date, null, size),
+                "getCustomerProduct", size -> saleService.getAllByCustomerIdAndProductId(customerId, productId, null, size),
+                "getCustomerDate", size -> saleService.getAllByCustomerIdAndDate(customerId, date, null, size),
+                "getProductDate", size -> saleService.getAllByProductIdAndDate(productId, date, null, size),
+                "getByAll", size -> saleService.getByAll(customerId, productId, date, null, size),
+                "search", size -> saleService.searchSales(SaleSearchDto.builder().customerId(customerId).material(Product.materialType.Pure).build(),
+                        SaleSearchRepository.sortType.COST_DESC, null, size),
+                "getDateRange", size -> saleService.getAllInDateRange(date, date, null, size)
+        );
+
+        listings.forEach((name, listing) -> {
+            long few = QueryCounter.count(() -> listing.accept(FEW));
+            long many = QueryCounter.count(() -> listing.accept(MANY));
+
+            assertThat(many).as("statements of /sale/%s for %d rows", name, MANY).isEqualTo(few);
+            assertThat(few).as("statements of /sale/%s", name).isLessThanOrEqualTo(2);
+        });
+    }
+
+    @Test
+    void saleBatchRunsTheSameStatementsForAnyNumberOfLines() {
+        long few = QueryCounter.count(() -> saleService.newSalesBatch(sales(FEW)));
+        long many = QueryCounter.count(() -> saleService.newSalesBatch(sales(MANY)));
+
+        assertThat(many).as("statements of /sale/batch for %d lines", MANY).isLessThanOrEqualTo(few + ID_BLOCK_FETCHES);
+    }
+
+    @Test
+    void returnedWaxBatchRunsTheSameStatementsForAnyNumberOfLines() {
+        long few = QueryCounter.count(() -> returnedWaxService.newReturnedWaxBatch(returns(FEW)));
+        long many = QueryCounter.count(() -> returnedWaxService.newReturnedWaxBatch(returns(MANY)));
+
+        assertThat(many).as("statements of /returnedWax/batch for %d lines", MANY).isLessThanOrEqualTo(few + ID_BLOCK_FETCHES);
+    }
+
+    private List<SaleDto> sales(int count) {
+        List<SaleDto> sales = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SaleDto sale = new SaleDto();
+            sale.setDate(date);
+            sale.setCustomerId(customerId);
+            sale.setProductId(productId);
+            sale.setQuantity(BigDecimal.ONE.add(BigDecimal.valueOf(i, 2)));
+            sales.add(sale);
+        }
+        return sales;
+    }
+
+    private List<ReturnedWaxDto> returns(int count) {
+        List<ReturnedWaxDto> returns = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ReturnedWaxDto returned = new ReturnedWaxDto();
+            returned.setCustomerId(customerId);
+            returned.setReturnDate(date);
+            returned.setMaterial(Product.materialType.Pure);
+            returned.setWeight(new BigDecimal("0.5"));
+            returns.add(returned);
+        }
+        return returns;
+    }
+}
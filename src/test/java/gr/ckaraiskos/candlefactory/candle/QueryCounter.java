@@ -0,0 +1,24 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so the scheduled jobs
+ * (compaction, outbox relay) running next to a test do not change its numbers.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static long count(Runnable action) {
+        long before = COUNT.get()[0];
+        action.run();
+        return COUNT.get()[0] - before;
+    }
+}
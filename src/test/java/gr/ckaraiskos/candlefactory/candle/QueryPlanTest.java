@@ -0,0 +1,129 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the H2 plans of the hot query shapes before and after the composite indexes: with the indexes of the table
+ * dropped the query scans the table (or at best a single-column foreign key index), with them it goes through its index.
+ * Drops and recreates the indexes, so it uses its own database, seeded with enough rows for the planner to choose.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_plan;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "candle.outbox.file.path=target/test-outbox/query-plan.ndjson"
+})
+@ActiveProfiles("george")
+class QueryPlanTest {
+
+    private record DeclaredIndex(String name, String table, String columns) {
+    }
+
+    private record PlannedQuery(String index, String sql) {
+    }
+
+    // Όπως στα @Table(indexes) των Sale, Production και Leave
+    private static final List<DeclaredIndex> INDEXES = List.of(
+            new DeclaredIndex("idx_sale_date_id", "sale", "date, id"),
+            new DeclaredIndex("idx_sale_customer_date", "sale", "customer_id, date, id"),
+            new DeclaredIndex("idx_sale_product_date", "sale", "product_type_id, date, id"),
+            new DeclaredIndex("idx_sale_date_product", "sale", "date, product_type_id"),
+            new DeclaredIndex("idx_production_product_date", "production", "product_id, date_of_production"),
+            new DeclaredIndex("idx_leave_start_end", "worker_leaves", "start_date, end_date"),
+            new DeclaredIndex("idx_leave_worker_start", "worker_leaves", "worker_id, start_date")
+    );
+
+    private static final List<PlannedQuery> QUERIES = List.of(
+            new PlannedQuery("idx_sale_date_id",
+                    "SELECT id FROM sale WHERE date > DATE '2025-12-20' OR (date = DATE '2025-12-20' AND id > 100) ORDER BY date, id LIMIT 50"),
+            new PlannedQuery("idx_sale_customer_date",
+                    "SELECT id FROM sale WHERE customer_id = 7 AND date BETWEEN DATE '2025-03-01' AND DATE '2025-03-31'"),
+            new PlannedQuery("idx_sale_product_date",
+                    "SELECT id FROM sale WHERE product_type_id = 7 AND date BETWEEN DATE '2025-03-01' AND DATE '2025-03-31'"),
+            new PlannedQuery("idx_production_product_date",
+                    "SELECT id FROM production WHERE product_id = 7 ORDER BY date_of_production"),
+            new PlannedQuery("idx_leave_start_end",
+                    "SELECT id FROM worker_leaves WHERE start_date <= DATE '2021-08-31' AND end_date >= DATE '2021-08-01'"),
+            new PlannedQuery("idx_leave_worker_start",
+                    "SELECT id FROM worker_leaves WHERE worker_id = 7 ORDER BY start_date")
+    );
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        seeded = true;
+
+        jdbcTemplate.execute("INSERT INTO customer (id, name, phone_number, version) SELECT X, 'Customer ' || X, '69' || X, 0 FROM SYSTEM_RANGE(1, 50)");
+        jdbcTemplate.execute("INSERT INTO product (id, product_code, material, by_weight, price, deleted) SELECT X, 'QP' || X, 'Pure', TRUE, 2.50, FALSE FROM SYSTEM_RANGE(1, 50)");
+        jdbcTemplate.execute("INSERT INTO worker (id, first_name, last_name, phone_number) SELECT X, 'Worker', '' || X, '69' || X FROM SYSTEM_RANGE(1, 20)");
+        jdbcTemplate.execute("""
+                INSERT INTO sale (id, customer_id, product_type_id, date, quantity_milli, cost)
+                SELECT X, MOD(X, 50) + 1, MOD(X / 7, 50) + 1, DATEADD(DAY, MOD(X, 365), DATE '2025-01-01'), 1000, 2.50
+                FROM SYSTEM_RANGE(1, 20000)
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO production (id, product_id, date_of_production, quantity_milli)
+                SELECT X, MOD(X, 50) + 1, DATEADD(DAY, (X - 1) / 50, DATE '2025-01-01'), 1000
+                FROM SYSTEM_RANGE(1, 18250)
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO worker_leaves (id, worker_id, start_date, end_date)
+                SELECT X, MOD(X, 20) + 1, DATEADD(DAY, X, DATE '2020-01-01'), DATEADD(DAY, X + 3, DATE '2020-01-01')
+                FROM SYSTEM_RANGE(1, 2000)
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void hotQueriesUseTheirIndexes() {
+        for (PlannedQuery query : QUERIES) {
+            String table = INDEXES.stream().filter(index -> index.name().equals(query.index())).findFirst().orElseThrow().table();
+            List<DeclaredIndex> tableIndexes = INDEXES.stream().filter(index -> index.table().equals(table)).toList();
+
+            String after = explain(query.sql());
+
+            tableIndexes.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index.name()));
+            String before;
+            try {
+                before = explain(query.sql());
+            } finally {
+                tableIndexes.forEach(index -> jdbcTemplate.execute("CREATE INDEX " + index.name() + " ON " + table + " (" + index.columns() + ")"));
+            }
+
+            log.info("Plan without the indexes of {}: {}", table, before);
+            log.info("Plan with {}: {}", query.index(), after);
+
+            assertThat(before).as("plan without the indexes of %s", table).doesNotContain(query.index().toUpperCase(Locale.ROOT));
+            assertThat(after).as("plan with %s", query.index()).contains(query.index().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Test
+    void duplicateProductionLookupUsesTheUniqueIndex() {
+        String plan = explain("SELECT id FROM production WHERE date_of_production = DATE '2025-03-01' AND product_id = 7");
+
+        assertThat(plan).contains("UK_PRODUCTION_DATE_PRODUCT");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,28 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the JDBC executions, single statements and whole batches, that Hibernate sends on the current thread.
+ * A batch of 50 inserts is one round trip to the database.
+ */
+public class RoundTripCounter implements SessionEventListener {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        COUNT.get()[0]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        COUNT.get()[0]++;
+    }
+
+    public static long count(Runnable action) {
+        long before = COUNT.get()[0];
+        action.run();
+        return COUNT.get()[0] - before;
+    }
+}
@@ -0,0 +1,107 @@
+package gr.ckaraiskos.candlefactory.candle;
+
+import gr.ckaraiskos.candlefactory.candle.component.StockEngine;
+import gr.ckaraiskos.candlefactory.candle.component.StorageComponent;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductDto;
+import gr.ckaraiskos.candlefactory.candle.dto.ProductionDto;
+import gr.ckaraiskos.candlefactory.candle.entity.Product;
+import gr.ckaraiskos.candlefactory.candle.service.ProductService;
+import gr.ckaraiskos.candlefactory.candle.service.ProductionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A resync while a sale has taken stock in memory but not committed must neither wipe the take nor restore it twice.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock_resync;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "candle.outbox.file.path=target/test-outbox/stock-resync.ndjson"
+})
+@ActiveProfiles("george")
+class StockResyncTest {
+
+    private static final long STOCK = 100_000;
+    private static final long TAKEN = 10_000;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductionService productionService;
+    @Autowired
+    private StorageComponent storageComponent;
+    @Autowired
+    private StockEngine stockEngine;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void resyncWaitsForACommittingTake() throws Exception {
+        Long productId = product("SR1");
+
+        assertThat(resyncDuringTake(productId, false)).isEqualTo(STOCK - TAKEN);
+    }
+
+    @Test
+    void resyncWaitsForARollingBackTake() throws Exception {
+        Long productId = product("SR2");
+
+        assertThat(resyncDuringTake(productId, true)).isEqualTo(STOCK);
+    }
+
+    private long resyncDuringTake(Long productId, boolean rollback) throws Exception {
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<Void> sale = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                storageComponent.tryDecreaseStorage(productId, TAKEN);
+                taken.countDown();
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        }));
+        assertThat(taken.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> resync = CompletableFuture.runAsync(stockEngine::resync);
+        Thread.sleep(200);
+        assertThat(resync).as("resync while the take is not committed").isNotDone();
+
+        finish.countDown();
+        sale.get(10, TimeUnit.SECONDS);
+        resync.get(10, TimeUnit.SECONDS);
+
+        return stockEngine.available(productId).orElseThrow();
+    }
+
+    private Long product(String productCode) throws Exception {
+        ProductDto product = new ProductDto();
+        product.setProductCode(productCode);
+        product.setMaterial(Product.materialType.Pure);
+        product.setByWeight(true);
+        product.setPrice(new BigDecimal("2.50"));
+        Long productId = productService.newProduct(product).getId();
+
+        ProductionDto production = new ProductionDto();
+        production.setDate(LocalDate.of(2026, 5, 1));
+        production.setProductId(productId);
+        production.setQuantity(new BigDecimal("100"));
+        productionService.newProduction(production, null);
+        return productId;
+    }
+}